@@ -0,0 +1,57 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class CreationBenchmark {
+
+	@Benchmark
+	public ObjectNode objectNodeFromPairs (Payloads payloads) {
+		return Json.objectNode (payloads.pairs);
+	}
+
+	@Benchmark
+	public ObjectNode objectNodeFromMap (Payloads payloads) {
+		return Json.objectNode (payloads.map);
+	}
+
+	@Benchmark
+	public ArrayNode arrayNodeFromValues (Payloads payloads) {
+		return Json.arrayNode (payloads.values);
+	}
+
+	@Benchmark
+	public ArrayNode arrayNodeFromCollection (Payloads payloads) {
+		return Json.arrayNode (payloads.list);
+	}
+
+	@Benchmark
+	public void valueOf (Payloads payloads, Blackhole hole) {
+		for ( Object value : payloads.values ) {
+			hole.consume (Json.valueOf (value));
+		}
+	}
+
+	@Benchmark
+	public JsonNode jacksonBaseline (Payloads payloads) {
+		return Mappers.instance.valueToTree (payloads.map);
+	}
+
+}
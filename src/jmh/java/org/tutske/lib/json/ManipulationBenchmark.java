@@ -0,0 +1,179 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class ManipulationBenchmark {
+
+	private static final Accessor SECOND_TAG = Json.accessor ("tags[1]");
+
+	@Benchmark
+	public ArrayNode map (Payloads payloads) {
+		return Json.map (payloads.array, node -> node.path ("name"));
+	}
+
+	@Benchmark
+	public ArrayNode filter (Payloads payloads) {
+		return Json.filter (payloads.array, node -> node.path ("active").asBoolean ());
+	}
+
+	@Benchmark
+	public JsonNode findLast (Payloads payloads) {
+		int last = payloads.count - 1;
+		return Json.find (payloads.array, node -> node.path ("id").asInt () == last);
+	}
+
+	@Benchmark
+	public JsonNode filterMapFind (Payloads payloads) {
+		int last = payloads.count - 1;
+		ArrayNode active = Json.filter (payloads.array, node -> node.path ("id").asInt () % 2 == last % 2);
+		ArrayNode ids = Json.map (active, node -> node.path ("id"));
+		return Json.find (ids, node -> node.asInt () == last);
+	}
+
+	@Benchmark
+	public JsonNode filterMapFindPipeline (Payloads payloads) {
+		int last = payloads.count - 1;
+		return Json.from (payloads.array)
+			.filter (node -> node.path ("id").asInt () % 2 == last % 2)
+			.map (node -> node.path ("id"))
+			.find (node -> node.asInt () == last);
+	}
+
+	@Benchmark
+	public double reduce (Payloads payloads) {
+		return Json.reduce (payloads.array, 0.0, (acc, node) -> acc + node.path ("score").asDouble ());
+	}
+
+	@Benchmark
+	public ObjectNode merge (Payloads payloads) {
+		return Json.merge (Json.objectNode (), payloads.object, payloads.other);
+	}
+
+	@Benchmark
+	public ObjectNode mergeAbsent (Payloads payloads) {
+		return Json.mergeAbsent (Json.objectNode (), payloads.object, payloads.other);
+	}
+
+	@Benchmark
+	public ObjectNode deepMerge (Payloads payloads) {
+		return Json.deepMerge (Json.objectNode (), payloads.object, payloads.other);
+	}
+
+	@Benchmark
+	public JsonNode mergePatch (Payloads payloads) {
+		return Json.mergePatch (Json.objectNode (), payloads.object);
+	}
+
+	@Benchmark
+	public ObjectNode keep (Payloads payloads) {
+		return Json.keep (payloads.object, payloads.purgeKeys);
+	}
+
+	@Benchmark
+	public ObjectNode purge (Payloads payloads) {
+		return Json.purge (payloads.object, payloads.purgeKeys);
+	}
+
+	@Benchmark
+	public void accessorLookup (Payloads payloads, Blackhole hole) {
+		for ( int i = 0; i < payloads.count; i++ ) {
+			hole.consume (SECOND_TAG.get (payloads.array.get (i)));
+		}
+	}
+
+	@Benchmark
+	public void pathChainLookup (Payloads payloads, Blackhole hole) {
+		for ( int i = 0; i < payloads.count; i++ ) {
+			hole.consume (payloads.array.get (i).path ("tags").path (1));
+		}
+	}
+
+	@Benchmark
+	public ObjectNode purgePersistent (Payloads payloads) {
+		return Json.purge (payloads.persistent, payloads.purgeKeys);
+	}
+
+	@Benchmark
+	public ObjectNode mergePersistent (Payloads payloads) {
+		return Json.merge (payloads.persistent, payloads.other);
+	}
+
+	@Benchmark
+	public ArrayNode distinct (Payloads payloads) {
+		return Json.distinct (payloads.array);
+	}
+
+	@Benchmark
+	public ArrayNode intersect (Payloads payloads) {
+		return Json.intersect (payloads.array, payloads.array);
+	}
+
+	@Benchmark
+	public boolean equalsCopy (Payloads payloads) {
+		return payloads.array.equals (payloads.arrayCopy);
+	}
+
+	@Benchmark
+	public boolean deepEqualsCopy (Payloads payloads) {
+		return Json.deepEquals (payloads.array, payloads.arrayCopy);
+	}
+
+	@Benchmark
+	public boolean equalsShared (Payloads payloads) {
+		return payloads.array.equals (payloads.arrayShared);
+	}
+
+	@Benchmark
+	public boolean deepEqualsShared (Payloads payloads) {
+		return Json.deepEquals (payloads.array, payloads.arrayShared);
+	}
+
+	@Benchmark
+	public long structuralHash (Payloads payloads) {
+		return Json.structuralHash (payloads.array);
+	}
+
+	@Benchmark
+	public ArrayNode diffCopy (Payloads payloads) {
+		return Json.diff (payloads.array, payloads.arrayCopy);
+	}
+
+	@Benchmark
+	public ArrayNode diffChanged (Payloads payloads) {
+		return Json.diff (payloads.array, payloads.arrayChanged);
+	}
+
+	@Benchmark
+	public JsonNode applyPatch (Payloads payloads) {
+		return Json.applyPatch (payloads.array, payloads.arrayPatch);
+	}
+
+	@Benchmark
+	public JsonNode purgeNullsFromObject (Payloads payloads) {
+		return Json.purgeNulls (payloads.withNulls);
+	}
+
+	@Benchmark
+	public JsonNode purgeNullsFromArray (Payloads payloads) {
+		return Json.purgeNulls (payloads.arrayWithNulls);
+	}
+
+}
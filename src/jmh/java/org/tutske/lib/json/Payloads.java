@@ -0,0 +1,128 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+@State (Scope.Benchmark)
+public class Payloads {
+
+	@Param ({ "small", "medium", "large" })
+	public String size;
+
+	public int count;
+
+	public Object [] pairs;
+	public Object [] values;
+	public Map<String, Object> map;
+	public List<Object> list;
+
+	public String [] keys;
+	public String [] purgeKeys;
+
+	public ObjectNode object;
+	public PersistentObjectNode persistent;
+	public ObjectNode other;
+	public ObjectNode withNulls;
+	public ArrayNode array;
+	public ArrayNode arrayWithNulls;
+	public ArrayNode arrayCopy;
+	public ArrayNode arrayShared;
+	public ArrayNode arrayChanged;
+	public ArrayNode arrayPatch;
+
+	public String objectJson;
+	public String arrayJson;
+	public byte [] arrayBytes;
+
+	@Setup (Level.Trial)
+	public void setup () {
+		count = count (size);
+
+		pairs = new Object [count * 2];
+		values = new Object [count];
+		map = new LinkedHashMap<> ();
+		list = new ArrayList<> ();
+		keys = new String [count];
+
+		for ( int i = 0; i < count; i++ ) {
+			Object value = value (i);
+			keys[i] = "key-" + i;
+			pairs[2 * i] = keys[i];
+			pairs[2 * i + 1] = value;
+			values[i] = value;
+			map.put (keys[i], value);
+			list.add (value);
+		}
+
+		purgeKeys = new String [Math.max (1, count / 10)];
+		for ( int i = 0; i < purgeKeys.length; i++ ) { purgeKeys[i] = keys[i * 10 % count]; }
+
+		object = Json.objectNode (map);
+		persistent = Json.persistent (object);
+		other = Json.objectNode ();
+		withNulls = Json.objectNode ();
+		array = Json.arrayNode ();
+		arrayWithNulls = Json.arrayNode ();
+
+		for ( int i = 0; i < count; i++ ) {
+			other.set ("other-" + i, Json.valueOf (i));
+			withNulls.set (keys[i], i % 3 == 0 ? null : Json.valueOf (values[i]));
+			array.add (record (i));
+			arrayWithNulls.add (i % 3 == 0 ? null : record (i));
+		}
+
+		arrayCopy = array.deepCopy ();
+		arrayShared = Json.arrayNode ();
+		arrayShared.addAll (array);
+		arrayChanged = Json.arrayNode ();
+		arrayChanged.addAll (array);
+		arrayChanged.set (count / 2, record (-1));
+		arrayChanged.add (record (count));
+		arrayPatch = Json.diff (array, arrayChanged);
+
+		objectJson = Json.stringify (object);
+		arrayJson = Json.stringify (array);
+		arrayBytes = Json.stringifyBytes (array);
+	}
+
+	public static ObjectNode record (int i) {
+		return Json.objectNode (
+			"id", i,
+			"name", "name-" + i,
+			"active", i % 2 == 0,
+			"score", i * 1.5,
+			"tags", Json.arrayNode ("a", "b", "c")
+		);
+	}
+
+	private static Object value (int i) {
+		switch ( i % 5 ) {
+			case 0: return i;
+			case 1: return "value-" + i;
+			case 2: return i % 2 == 0;
+			case 3: return i * 1.25;
+			default: return (long) i << 32;
+		}
+	}
+
+	private static int count (String size) {
+		switch ( size ) {
+			case "small": return 8;
+			case "medium": return 512;
+			case "large": return 32768;
+			default: throw new IllegalArgumentException ("Unknown payload size: " + size);
+		}
+	}
+
+}
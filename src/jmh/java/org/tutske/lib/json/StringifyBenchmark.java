@@ -0,0 +1,89 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class StringifyBenchmark {
+
+	private static final ObjectMapper COMPACT = Mappers.compactMapper ();
+	private static final Projection FIRST_RECORD = Projection.paths ("[0].id", "[0].name");
+
+	@Benchmark
+	public String stringify (Payloads payloads) {
+		return Json.stringify (payloads.array);
+	}
+
+	@Benchmark
+	public byte [] stringifyBytes (Payloads payloads) {
+		return Json.stringifyBytes (payloads.array);
+	}
+
+	@Benchmark
+	public long writeLines (Payloads payloads) {
+		return Json.writeLines (OutputStream.nullOutputStream (), Json.stream (payloads.array));
+	}
+
+	@Benchmark
+	public String prettyStringify (Payloads payloads) {
+		return Json.prettyStringify (payloads.array);
+	}
+
+	@Benchmark
+	public String jacksonStringifyBaseline (Payloads payloads) throws IOException {
+		return Mappers.instance.writeValueAsString (payloads.array);
+	}
+
+	@Benchmark
+	public JsonNode parseObject (Payloads payloads) throws JsonParseException {
+		return Json.parse (payloads.objectJson);
+	}
+
+	@Benchmark
+	public JsonNode parseArray (Payloads payloads) throws JsonParseException {
+		return Json.parse (payloads.arrayJson);
+	}
+
+	@Benchmark
+	public JsonNode parseArrayBytes (Payloads payloads) throws JsonParseException {
+		return Json.parse (payloads.arrayBytes, 0, payloads.arrayBytes.length);
+	}
+
+	@Benchmark
+	public JsonNode parseArrayProjected (Payloads payloads) throws JsonParseException {
+		return Json.parse (payloads.arrayJson, FIRST_RECORD);
+	}
+
+	@Benchmark
+	public JsonNode parseArrayThenKeep (Payloads payloads) throws JsonParseException {
+		return Json.keep (Json.parse (payloads.arrayJson).get (0), "id", "name");
+	}
+
+	@Benchmark
+	public JsonNode parseArrayCompact (Payloads payloads) throws JsonParseException {
+		return Json.parse (COMPACT, payloads.arrayBytes, 0, payloads.arrayBytes.length);
+	}
+
+	@Benchmark
+	public JsonNode jacksonParseBaseline (Payloads payloads) throws IOException {
+		return Mappers.instance.readTree (payloads.arrayJson);
+	}
+
+}
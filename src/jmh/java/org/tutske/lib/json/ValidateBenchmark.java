@@ -0,0 +1,92 @@
+package org.tutske.lib.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class ValidateBenchmark {
+
+	private static final String [] FIELDS = { "id", "name", "active", "score" };
+	private static final String [] STRINGS = { "name" };
+	private static final String [] ABSENT = { "password" };
+
+	private static final Validator VALIDATOR = Validate.compile (schema -> schema
+		.fields (FIELDS)
+		.primitiveFields (FIELDS)
+		.nonEmptyStrings (STRINGS)
+		.absence (ABSENT)
+	);
+
+	@Benchmark
+	public void assureObjects (Payloads payloads) {
+		Validate.assureArray (payloads.array);
+		for ( int i = 0; i < payloads.count; i++ ) {
+			Validate.assureObject (payloads.array.get (i));
+		}
+	}
+
+	@Benchmark
+	public void assureFieldsChain (Payloads payloads) {
+		for ( int i = 0; i < payloads.count; i++ ) {
+			Validate.assureObject (payloads.array.get (i));
+			Validate.assureFields (payloads.array.get (i), FIELDS);
+			Validate.assurePrimitiveFields (payloads.array.get (i), FIELDS);
+			Validate.assureNonEmptyStrings (payloads.array.get (i), STRINGS);
+			Validate.assureAbsence (payloads.array.get (i), ABSENT);
+		}
+	}
+
+	@Benchmark
+	public void compiledValidator (Payloads payloads) {
+		for ( int i = 0; i < payloads.count; i++ ) {
+			VALIDATOR.validate (payloads.array.get (i));
+		}
+	}
+
+	@Benchmark
+	public ValidationReport validateAll (Payloads payloads) {
+		return Validate.validateAll (payloads.array, VALIDATOR);
+	}
+
+	@Benchmark
+	public void assurePrimitiveValues (Payloads payloads) {
+		for ( int i = 0; i < payloads.count; i++ ) {
+			Validate.assurePrimitiveValue (payloads.array.get (i).path ("id"));
+		}
+	}
+
+	@Benchmark
+	public void assureFieldsFailing (Payloads payloads, Blackhole hole) {
+		for ( int i = 0; i < payloads.count; i++ ) {
+			try { Validate.assureFields (payloads.array.get (i), ABSENT); }
+			catch ( JsonException e ) { hole.consume (e); }
+		}
+	}
+
+	@Benchmark
+	public void assureFieldsFailingStackless (Payloads payloads, Blackhole hole) {
+		Validate.stackTraces (false);
+		try {
+			for ( int i = 0; i < payloads.count; i++ ) {
+				try { Validate.assureFields (payloads.array.get (i), ABSENT); }
+				catch ( JsonException e ) { hole.consume (e); }
+			}
+		} finally {
+			Validate.stackTraces (true);
+		}
+	}
+
+}
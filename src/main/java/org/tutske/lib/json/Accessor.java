@@ -0,0 +1,191 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+public class Accessor {
+
+	private static final int CACHE_SIZE = 1024;
+	private static final Accessor [] cache = new Accessor [CACHE_SIZE];
+
+	public static Accessor of (String expression) {
+		int hash = expression.hashCode ();
+		int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+
+		Accessor cached = cache[slot];
+		if ( cached != null && cached.expression.equals (expression) ) { return cached; }
+
+		Accessor compiled = compile (expression);
+		cache[slot] = compiled;
+		return compiled;
+	}
+
+	public static Accessor compile (String expression) {
+		if ( expression.isEmpty () || expression.charAt (0) == '/' ) { return pointer (expression); }
+		return path (expression);
+	}
+
+	static Accessor field (String name) {
+		return new Accessor (name, Collections.singletonList (name), Collections.singletonList (-1));
+	}
+
+	private final String expression;
+	private final String [] names;
+	private final int [] indices;
+
+	private Accessor (String expression, List<String> names, List<Integer> indices) {
+		this.expression = expression;
+		this.names = names.toArray (new String [0]);
+		this.indices = new int [indices.size ()];
+		for ( int i = 0; i < this.indices.length; i++ ) { this.indices[i] = indices.get (i); }
+	}
+
+	public JsonNode get (JsonNode node) {
+		JsonNode current = node;
+		for ( int i = 0; i < names.length && current != null; i++ ) {
+			if ( names[i] != null && current.isObject () ) { current = current.get (names[i]); }
+			else if ( indices[i] >= 0 && current.isArray () ) { current = current.get (indices[i]); }
+			else { current = null; }
+		}
+		return current == null ? MissingNode.getInstance () : current;
+	}
+
+	public boolean has (JsonNode node) {
+		return ! get (node).isMissingNode ();
+	}
+
+	public String expression () {
+		return expression;
+	}
+
+	int depth () {
+		return names.length;
+	}
+
+	String name (int step) {
+		return names[step];
+	}
+
+	int index (int step) {
+		return indices[step];
+	}
+
+	@Override public boolean equals (Object o) {
+		return o instanceof Accessor && ((Accessor) o).expression.equals (expression);
+	}
+
+	@Override public int hashCode () {
+		return expression.hashCode ();
+	}
+
+	@Override public String toString () {
+		return expression;
+	}
+
+	private static Accessor pointer (String expression) {
+		List<String> names = new ArrayList<> ();
+		List<Integer> indices = new ArrayList<> ();
+
+		int start = 1;
+		while ( start <= expression.length () ) {
+			int end = expression.indexOf ('/', start);
+			if ( end < 0 ) { end = expression.length (); }
+
+			String segment = expression.substring (start, end);
+			if ( segment.contains ("~") ) { segment = unescape (expression, segment, start); }
+
+			names.add (segment);
+			indices.add (index (segment));
+			start = end + 1;
+		}
+
+		return new Accessor (expression, names, indices);
+	}
+
+	private static String unescape (String expression, String segment, int offset) {
+		StringBuilder builder = new StringBuilder (segment.length ());
+		for ( int i = 0; i < segment.length (); i++ ) {
+			char c = segment.charAt (i);
+			if ( c != '~' ) { builder.append (c); continue; }
+
+			char next = i + 1 < segment.length () ? segment.charAt (i + 1) : 0;
+			if ( next == '0' ) { builder.append ('~'); }
+			else if ( next == '1' ) { builder.append ('/'); }
+			else { throw invalid (expression, offset + i, "Found an invalid escape in a json pointer"); }
+			i++;
+		}
+		return builder.toString ();
+	}
+
+	private static Accessor path (String expression) {
+		List<String> names = new ArrayList<> ();
+		List<Integer> indices = new ArrayList<> ();
+
+		int i = 0;
+		int length = expression.length ();
+		while ( i < length ) {
+			char c = expression.charAt (i);
+
+			if ( c == '[' ) {
+				int close = expression.indexOf (']', i);
+				if ( close < 0 ) { throw invalid (expression, i, "Found an unclosed bracket"); }
+
+				String inner = expression.substring (i + 1, close);
+				if ( inner.length () >= 2 && (inner.charAt (0) == '\'' || inner.charAt (0) == '"')
+					&& inner.charAt (inner.length () - 1) == inner.charAt (0) ) {
+					names.add (inner.substring (1, inner.length () - 1));
+					indices.add (-1);
+				} else {
+					int index = index (inner);
+					if ( index < 0 ) { throw invalid (expression, i, "Found an invalid array index"); }
+					names.add (null);
+					indices.add (index);
+				}
+
+				i = close + 1;
+				if ( i < length && expression.charAt (i) == '.' ) {
+					i++;
+					if ( i == length ) { throw invalid (expression, i, "Found a path ending in a dot"); }
+				}
+				continue;
+			}
+
+			int end = i;
+			while ( end < length && expression.charAt (end) != '.' && expression.charAt (end) != '[' ) { end++; }
+			if ( end == i ) { throw invalid (expression, i, "Found an empty field name"); }
+
+			names.add (expression.substring (i, end));
+			indices.add (-1);
+
+			i = end;
+			if ( i < length && expression.charAt (i) == '.' ) {
+				i++;
+				if ( i == length ) { throw invalid (expression, i, "Found a path ending in a dot"); }
+			}
+		}
+
+		return new Accessor (expression, names, indices);
+	}
+
+	private static int index (String segment) {
+		if ( segment.isEmpty () || segment.length () > 9 ) { return -1; }
+		if ( segment.length () > 1 && segment.charAt (0) == '0' ) { return -1; }
+		for ( int i = 0; i < segment.length (); i++ ) {
+			if ( segment.charAt (i) < '0' || segment.charAt (i) > '9' ) { return -1; }
+		}
+		return Integer.parseInt (segment);
+	}
+
+	private static JsonException invalid (String expression, int position, String message) {
+		return new JsonException (message, Json.objectNode (
+			"expression", expression,
+			"position", position
+		));
+	}
+
+}
@@ -0,0 +1,185 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+
+public class AsyncParser implements AutoCloseable {
+
+	private static final int CHUNK_SIZE = 8192;
+
+	private final JsonParser parser;
+	private final ByteArrayFeeder feeder;
+	private final JsonNodeFactory factory;
+	private final Consumer<JsonNode> consumer;
+	private final boolean bigIntegers;
+	private final boolean longs;
+	private final boolean bigDecimals;
+	private final boolean failOnDuplicates;
+
+	private final Deque<ContainerNode<?>> containers = new ArrayDeque<> ();
+	private String name;
+	private byte [] scratch;
+	private boolean ended = false;
+
+	AsyncParser (ObjectMapper mapper, Consumer<JsonNode> consumer) {
+		try {
+			this.parser = mapper.getFactory ().createNonBlockingByteArrayParser ();
+		} catch ( IOException e ) {
+			throw new RuntimeException (e);
+		}
+		this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder ();
+		this.consumer = consumer;
+
+		/* Reads the same features as the tree deserializer, so both build the same tree. */
+		DeserializationConfig config = mapper.getDeserializationConfig ();
+		this.factory = config.getNodeFactory ();
+		this.bigIntegers = config.isEnabled (DeserializationFeature.USE_BIG_INTEGER_FOR_INTS);
+		this.longs = config.isEnabled (DeserializationFeature.USE_LONG_FOR_INTS);
+		this.bigDecimals = config.isEnabled (DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+		this.failOnDuplicates = config.isEnabled (DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY);
+	}
+
+	public void feed (byte [] bytes)
+	throws JsonParseException {
+		feed (bytes, 0, bytes.length);
+	}
+
+	public void feed (byte [] bytes, int off, int len)
+	throws JsonParseException {
+		if ( ended ) {
+			throw new JsonException ("Can not feed more input after the end of the input", Json.objectNode (
+				"length", len
+			));
+		}
+		if ( len == 0 ) { return; }
+
+		try {
+			feeder.feedInput (bytes, off, off + len);
+			drain ();
+		}
+		catch ( JsonParseException e ) { throw e; }
+		catch ( IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public void feed (ByteBuffer buffer)
+	throws JsonParseException {
+		if ( buffer.hasArray () ) {
+			feed (buffer.array (), buffer.arrayOffset () + buffer.position (), buffer.remaining ());
+			buffer.position (buffer.limit ());
+			return;
+		}
+
+		if ( scratch == null ) { scratch = new byte [CHUNK_SIZE]; }
+		while ( buffer.hasRemaining () ) {
+			int len = Math.min (scratch.length, buffer.remaining ());
+			buffer.get (scratch, 0, len);
+			feed (scratch, 0, len);
+		}
+	}
+
+	public void end ()
+	throws JsonParseException {
+		if ( ended ) { return; }
+		ended = true;
+
+		try {
+			feeder.endOfInput ();
+			drain ();
+			parser.close ();
+		}
+		catch ( JsonParseException e ) { throw e; }
+		catch ( IOException e ) { throw new RuntimeException (e); }
+	}
+
+	@Override public void close ()
+	throws JsonParseException {
+		end ();
+	}
+
+	private void drain ()
+	throws IOException {
+		for ( JsonToken token = parser.nextToken (); token != null; token = parser.nextToken () ) {
+			switch ( token ) {
+				case NOT_AVAILABLE: return;
+				case START_OBJECT: open (factory.objectNode ()); break;
+				case START_ARRAY: open (factory.arrayNode ()); break;
+				case END_OBJECT: case END_ARRAY: finish (containers.pop ()); break;
+				case FIELD_NAME: name = parser.getCurrentName (); break;
+				default: value (scalar (token)); break;
+			}
+		}
+	}
+
+	private JsonNode scalar (JsonToken token)
+	throws IOException {
+		switch ( token ) {
+			case VALUE_STRING: return factory.textNode (parser.getText ());
+			case VALUE_TRUE: return factory.booleanNode (true);
+			case VALUE_FALSE: return factory.booleanNode (false);
+			case VALUE_NULL: return factory.nullNode ();
+			case VALUE_NUMBER_INT: return integer ();
+			case VALUE_NUMBER_FLOAT:
+				return bigDecimals && ! parser.isNaN ()
+					? factory.numberNode (parser.getDecimalValue ())
+					: factory.numberNode (parser.getDoubleValue ());
+			default: return factory.pojoNode (parser.getEmbeddedObject ());
+		}
+	}
+
+	private JsonNode integer ()
+	throws IOException {
+		if ( bigIntegers ) { return factory.numberNode (parser.getBigIntegerValue ()); }
+		switch ( parser.getNumberType () ) {
+			case INT: return longs ? factory.numberNode (parser.getLongValue ()) : factory.numberNode (parser.getIntValue ());
+			case LONG: return factory.numberNode (parser.getLongValue ());
+			default: return factory.numberNode (parser.getBigIntegerValue ());
+		}
+	}
+
+	private void open (ContainerNode<?> container)
+	throws JsonParseException {
+		attach (container);
+		containers.push (container);
+	}
+
+	private void finish (ContainerNode<?> container) {
+		if ( containers.isEmpty () ) { consumer.accept (container); }
+	}
+
+	private void value (JsonNode value)
+	throws JsonParseException {
+		attach (value);
+		if ( containers.isEmpty () ) { consumer.accept (value); }
+	}
+
+	private void attach (JsonNode node)
+	throws JsonParseException {
+		ContainerNode<?> parent = containers.peek ();
+		if ( parent instanceof ObjectNode ) {
+			if ( failOnDuplicates && parent.has (name) ) {
+				throw new JsonParseException (parser, "Duplicate field '" + name + "' for ObjectNode: "
+					+ "not allowed when FAIL_ON_READING_DUP_TREE_KEY enabled");
+			}
+			((ObjectNode) parent).set (name, node);
+		}
+		else if ( parent instanceof ArrayNode ) { ((ArrayNode) parent).add (node); }
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.NumericNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.node.ValueNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/*
+ * Canonicalizes the field names of object nodes and leaves everything else, including
+ * the storage of compact objects and the handling of decimals, to the wrapped factory.
+ */
+class CanonicalNodeFactory extends JsonNodeFactory {
+
+	private static final long serialVersionUID = 1L;
+
+	static CanonicalNodeFactory wrap (JsonNodeFactory factory, SymbolTable symbols) {
+		if ( factory instanceof CanonicalNodeFactory ) { factory = ((CanonicalNodeFactory) factory).delegate; }
+		return new CanonicalNodeFactory (factory, symbols);
+	}
+
+	private final JsonNodeFactory delegate;
+	private final transient SymbolTable symbols;
+
+	private CanonicalNodeFactory (JsonNodeFactory delegate, SymbolTable symbols) {
+		super (false);
+		this.delegate = delegate;
+		this.symbols = symbols;
+	}
+
+	private Object readResolve () {
+		return symbols == null ? wrap (delegate, SymbolTable.shared ()) : this;
+	}
+
+	@Override public ObjectNode objectNode () {
+		if ( delegate instanceof CompactNodeFactory ) {
+			return new ObjectNode (this, ((CompactNodeFactory) delegate).fields (symbols));
+		}
+		return new ObjectNode (this, new CanonicalFields (symbols));
+	}
+
+	@Override public ArrayNode arrayNode () { return new ArrayNode (this); }
+	@Override public ArrayNode arrayNode (int capacity) { return new ArrayNode (this, capacity); }
+
+	@Override public BooleanNode booleanNode (boolean value) { return delegate.booleanNode (value); }
+	@Override public NullNode nullNode () { return delegate.nullNode (); }
+	@Override public NumericNode numberNode (byte value) { return delegate.numberNode (value); }
+	@Override public ValueNode numberNode (Byte value) { return delegate.numberNode (value); }
+	@Override public NumericNode numberNode (short value) { return delegate.numberNode (value); }
+	@Override public ValueNode numberNode (Short value) { return delegate.numberNode (value); }
+	@Override public NumericNode numberNode (int value) { return delegate.numberNode (value); }
+	@Override public ValueNode numberNode (Integer value) { return delegate.numberNode (value); }
+	@Override public NumericNode numberNode (long value) { return delegate.numberNode (value); }
+	@Override public ValueNode numberNode (Long value) { return delegate.numberNode (value); }
+	@Override public ValueNode numberNode (BigInteger value) { return delegate.numberNode (value); }
+	@Override public NumericNode numberNode (float value) { return delegate.numberNode (value); }
+	@Override public ValueNode numberNode (Float value) { return delegate.numberNode (value); }
+	@Override public NumericNode numberNode (double value) { return delegate.numberNode (value); }
+	@Override public ValueNode numberNode (Double value) { return delegate.numberNode (value); }
+	@Override public ValueNode numberNode (BigDecimal value) { return delegate.numberNode (value); }
+	@Override public TextNode textNode (String text) { return delegate.textNode (text); }
+	@Override public BinaryNode binaryNode (byte [] data) { return delegate.binaryNode (data); }
+	@Override public BinaryNode binaryNode (byte [] data, int offset, int length) { return delegate.binaryNode (data, offset, length); }
+	@Override public ValueNode pojoNode (Object pojo) { return delegate.pojoNode (pojo); }
+	@Override public ValueNode rawValueNode (RawValue value) { return delegate.rawValueNode (value); }
+
+	private static final class CanonicalFields extends LinkedHashMap<String, JsonNode> {
+		private static final long serialVersionUID = 1L;
+
+		private final transient SymbolTable symbols;
+
+		CanonicalFields (SymbolTable symbols) {
+			this.symbols = symbols;
+		}
+
+		@Override public JsonNode put (String key, JsonNode value) {
+			return super.put (symbols.canonical (key), value);
+		}
+
+		@Override public void putAll (Map<? extends String, ? extends JsonNode> fields) {
+			fields.forEach (this::put);
+		}
+	}
+
+}
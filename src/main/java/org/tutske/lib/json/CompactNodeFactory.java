@@ -0,0 +1,255 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NumericNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.node.ValueNode;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+public class CompactNodeFactory extends JsonNodeFactory {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final CompactNodeFactory instance = new CompactNodeFactory ();
+
+	private static final int MIN_CACHED_INT = -128;
+	private static final int MAX_CACHED_INT = 1023;
+	private static final IntNode [] INTS = new IntNode [MAX_CACHED_INT - MIN_CACHED_INT + 1];
+	static {
+		for ( int i = 0; i < INTS.length; i++ ) { INTS[i] = IntNode.valueOf (i + MIN_CACHED_INT); }
+	}
+
+	private static final int MAX_SHARED_TEXT_LENGTH = 32;
+	private static final int TEXT_SLOTS = 4096;
+
+	private final TextNode [] texts = new TextNode [TEXT_SLOTS];
+
+	public CompactNodeFactory () {
+		super (false);
+	}
+
+	@Override public ObjectNode objectNode () {
+		return new ObjectNode (this, fields (null));
+	}
+
+	Map<String, JsonNode> fields (SymbolTable symbols) {
+		return new CompactFields (symbols);
+	}
+
+	@Override public NumericNode numberNode (int value) {
+		if ( value < MIN_CACHED_INT || value > MAX_CACHED_INT ) { return IntNode.valueOf (value); }
+		return INTS[value - MIN_CACHED_INT];
+	}
+
+	@Override public ValueNode numberNode (Integer value) {
+		return value == null ? nullNode () : numberNode (value.intValue ());
+	}
+
+	@Override public TextNode textNode (String text) {
+		if ( text == null || text.length () > MAX_SHARED_TEXT_LENGTH ) { return TextNode.valueOf (text); }
+
+		int hash = text.hashCode ();
+		int slot = (hash ^ (hash >>> 16)) & (TEXT_SLOTS - 1);
+
+		TextNode shared = texts[slot];
+		if ( shared != null && shared.textValue ().equals (text) ) { return shared; }
+
+		TextNode created = TextNode.valueOf (text);
+		texts[slot] = created;
+		return created;
+	}
+
+	private static final class CompactFields extends AbstractMap<String, JsonNode> {
+		private static final int INITIAL_CAPACITY = 4;
+		private static final int MAX_CAPACITY = 8;
+		private static final Object [] EMPTY = {};
+
+		private final SymbolTable symbols;
+		private Object [] pairs = EMPTY;
+		private int size;
+		private Map<String, JsonNode> expanded;
+		private int modifications;
+
+		CompactFields (SymbolTable symbols) {
+			this.symbols = symbols;
+		}
+
+		@Override public int size () {
+			return expanded == null ? size : expanded.size ();
+		}
+
+		@Override public boolean containsKey (Object key) {
+			return expanded == null ? indexOf (key) >= 0 : expanded.containsKey (key);
+		}
+
+		@Override public JsonNode get (Object key) {
+			if ( expanded != null ) { return expanded.get (key); }
+			int index = indexOf (key);
+			return index < 0 ? null : (JsonNode) pairs[index + 1];
+		}
+
+		@Override public JsonNode put (String key, JsonNode value) {
+			if ( symbols != null ) { key = symbols.canonical (key); }
+			if ( expanded != null ) { return expanded.put (key, value); }
+
+			int index = indexOf (key);
+			if ( index >= 0 ) {
+				JsonNode previous = (JsonNode) pairs[index + 1];
+				pairs[index + 1] = value;
+				return previous;
+			}
+
+			if ( size == MAX_CAPACITY ) {
+				expanded = new LinkedHashMap<> ();
+				for ( int i = 0; i < size; i++ ) { expanded.put ((String) pairs[2 * i], (JsonNode) pairs[2 * i + 1]); }
+				expanded.put (key, value);
+				pairs = EMPTY;
+				size = 0;
+				return null;
+			}
+
+			if ( 2 * size == pairs.length ) {
+				Object [] grown = new Object [2 * Math.max (INITIAL_CAPACITY, Math.min (MAX_CAPACITY, 2 * size))];
+				System.arraycopy (pairs, 0, grown, 0, pairs.length);
+				pairs = grown;
+			}
+
+			pairs[2 * size] = key;
+			pairs[2 * size + 1] = value;
+			size++;
+			modifications++;
+			return null;
+		}
+
+		@Override public JsonNode remove (Object key) {
+			if ( expanded != null ) { return expanded.remove (key); }
+
+			int index = indexOf (key);
+			if ( index < 0 ) { return null; }
+
+			JsonNode previous = (JsonNode) pairs[index + 1];
+			removeAt (index / 2);
+			return previous;
+		}
+
+		@Override public void clear () {
+			if ( expanded != null ) { expanded.clear (); return; }
+			pairs = EMPTY;
+			size = 0;
+			modifications++;
+		}
+
+		@Override public Set<Entry<String, JsonNode>> entrySet () {
+			if ( expanded != null ) { return expanded.entrySet (); }
+			return new AbstractSet<Entry<String, JsonNode>> () {
+				@Override public int size () { return CompactFields.this.size (); }
+				@Override public Iterator<Entry<String, JsonNode>> iterator () {
+					return expanded != null ? expanded.entrySet ().iterator () : new EntryIterator ();
+				}
+			};
+		}
+
+		private int indexOf (Object key) {
+			if ( key == null ) { return -1; }
+			for ( int i = 0; i < 2 * size; i += 2 ) {
+				if ( pairs[i] == key || pairs[i].equals (key) ) { return i; }
+			}
+			return -1;
+		}
+
+		private void removeAt (int position) {
+			int moved = 2 * (size - position - 1);
+			if ( moved > 0 ) { System.arraycopy (pairs, 2 * position + 2, pairs, 2 * position, moved); }
+			size--;
+			pairs[2 * size] = null;
+			pairs[2 * size + 1] = null;
+			modifications++;
+		}
+
+		private final class EntryIterator implements Iterator<Entry<String, JsonNode>> {
+			private int next;
+			private int last = -1;
+			private int expected = modifications;
+
+			@Override public boolean hasNext () {
+				return next < size;
+			}
+
+			@Override public Entry<String, JsonNode> next () {
+				if ( expected != modifications || expanded != null ) { throw new ConcurrentModificationException (); }
+				if ( next >= size ) { throw new NoSuchElementException (); }
+				last = next++;
+				return new Field (2 * last);
+			}
+
+			@Override public void remove () {
+				if ( last < 0 ) { throw new IllegalStateException (); }
+				if ( expected != modifications ) { throw new ConcurrentModificationException (); }
+				removeAt (last);
+				next = last;
+				last = -1;
+				expected = modifications;
+			}
+		}
+
+		private final class Field implements Entry<String, JsonNode> {
+			private final String key;
+			private final int index;
+
+			Field (int index) {
+				this.key = (String) pairs[index];
+				this.index = index;
+			}
+
+			@Override public String getKey () {
+				return key;
+			}
+
+			@Override public JsonNode getValue () {
+				if ( current () ) { return (JsonNode) pairs[index + 1]; }
+				return CompactFields.this.get (key);
+			}
+
+			@Override public JsonNode setValue (JsonNode value) {
+				if ( current () ) {
+					JsonNode previous = (JsonNode) pairs[index + 1];
+					pairs[index + 1] = value;
+					return previous;
+				}
+				return CompactFields.this.put (key, value);
+			}
+
+			private boolean current () {
+				return expanded == null && index < 2 * size && pairs[index] == key;
+			}
+
+			@Override public boolean equals (Object o) {
+				if ( ! (o instanceof Entry) ) { return false; }
+				Entry<?, ?> other = (Entry<?, ?>) o;
+				return key.equals (other.getKey ()) && getValue ().equals (other.getValue ());
+			}
+
+			@Override public int hashCode () {
+				JsonNode value = getValue ();
+				return key.hashCode () ^ (value == null ? 0 : value.hashCode ());
+			}
+
+			@Override public String toString () {
+				return key + "=" + getValue ();
+			}
+		}
+	}
+
+}
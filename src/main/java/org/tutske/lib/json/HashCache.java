@@ -0,0 +1,73 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+
+public class HashCache {
+
+	static final long ABSENT = 0L;
+
+	private final ReferenceQueue<JsonNode> queue = new ReferenceQueue<> ();
+	private final Map<Key, Long> hashes = new HashMap<> ();
+
+	public long hash (JsonNode node) {
+		return StructuralHash.hash (node, this);
+	}
+
+	public synchronized int size () {
+		expunge ();
+		return hashes.size ();
+	}
+
+	/* Only forgets the node itself, the containers holding it have to be invalidated as well. */
+	public synchronized void invalidate (JsonNode node) {
+		hashes.remove (new Key (node, null));
+	}
+
+	public synchronized void clear () {
+		hashes.clear ();
+		while ( queue.poll () != null ) {}
+	}
+
+	synchronized long lookup (JsonNode node) {
+		Long hash = hashes.get (new Key (node, null));
+		return hash == null ? ABSENT : hash;
+	}
+
+	synchronized void store (JsonNode node, long hash) {
+		if ( hash == ABSENT ) { return; }
+		expunge ();
+		hashes.put (new Key (node, queue), hash);
+	}
+
+	private void expunge () {
+		for ( Reference<?> ref = queue.poll (); ref != null; ref = queue.poll () ) { hashes.remove (ref); }
+	}
+
+	private static final class Key extends WeakReference<JsonNode> {
+		private final int hash;
+
+		Key (JsonNode node, ReferenceQueue<JsonNode> queue) {
+			super (node, queue);
+			this.hash = System.identityHashCode (node);
+		}
+
+		@Override public int hashCode () {
+			return hash;
+		}
+
+		@Override public boolean equals (Object o) {
+			if ( this == o ) { return true; }
+			if ( ! (o instanceof Key) ) { return false; }
+			JsonNode node = get ();
+			return node != null && node == ((Key) o).get ();
+		}
+	}
+
+}
@@ -1,33 +1,73 @@
 package org.tutske.lib.json;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class Json {
 
+	private static final long FLUSH_BYTES = 1 << 20;
+	private static final long FLUSH_RECORDS = 10_000;
+
 	public static interface JsonCreator<T extends JsonNode> {
 		public T create (Object ... args);
 	}
@@ -42,7 +82,7 @@ public class Json {
 
 	public static <T> Collector<T, ArrayNode, ArrayNode> collectToArray (ObjectMapper mapper) {
 		return Collector.of (
-			JsonNodeFactory.instance::arrayNode,
+			mapper.getNodeFactory ()::arrayNode,
 			(acc, curr) -> { acc.add (mapper.valueToTree (curr)); },
 			ArrayNode::addAll
 		);
@@ -68,7 +108,7 @@ public class Json {
 		ObjectMapper mapper, Function<T, String> keyFn, Function<T, ?> valueFn
 	) {
 		return Collector.of (
-			JsonNodeFactory.instance::objectNode,
+			mapper.getNodeFactory ()::objectNode,
 			(acc, curr) -> acc.set (keyFn.apply (curr), mapper.valueToTree (valueFn.apply (curr))),
 			(l, r) -> (ObjectNode) l.setAll (r)
 		);
@@ -106,7 +146,7 @@ public class Json {
 		}
 
 		int i = 0;
-		ObjectNode node = JsonNodeFactory.instance.objectNode ();
+		ObjectNode node = mapper.getNodeFactory ().objectNode ();
 		while ( i < args.length ) {
 			node.set ((String) args[i++], mapper.valueToTree (args[i++]));
 		}
@@ -123,7 +163,7 @@ public class Json {
 	}
 
 	public static ObjectNode objectNode (ObjectMapper mapper, Map<String, ?> map) {
-		ObjectNode node = JsonNodeFactory.instance.objectNode ();
+		ObjectNode node = mapper.getNodeFactory ().objectNode ();
 		for ( Map.Entry<String, ?> entry : map.entrySet () ) {
 			node.set (entry.getKey (), mapper.valueToTree (entry.getValue ()));
 		}
@@ -137,7 +177,7 @@ public class Json {
 	}
 
 	public static ArrayNode arrayNode (ObjectMapper mapper, Object ... args) {
-		ArrayNode node = JsonNodeFactory.instance.arrayNode ();
+		ArrayNode node = mapper.getNodeFactory ().arrayNode ();
 		for ( Object arg : args ) { node.add (mapper.valueToTree (arg)); }
 		return node;
 	}
@@ -155,13 +195,13 @@ public class Json {
 	}
 
 	public static ArrayNode arrayNode (ObjectMapper mapper, Collection<?> args) {
-		ArrayNode node = JsonNodeFactory.instance.arrayNode ();
+		ArrayNode node = mapper.getNodeFactory ().arrayNode ();
 		for ( Object arg : args ) { node.add (mapper.valueToTree (arg)); }
 		return node;
 	}
 
 	public static <T> ArrayNode arrayNode (ObjectMapper mapper, Collection<T> args, Function<T, ?> fn) {
-		ArrayNode node = JsonNodeFactory.instance.arrayNode ();
+		ArrayNode node = mapper.getNodeFactory ().arrayNode ();
 		for ( T arg : args ) { node.add (mapper.valueToTree (fn.apply (arg))); }
 		return node;
 	}
@@ -191,6 +231,82 @@ public class Json {
 		return false;
 	}
 
+	public static ArrayNode diff (JsonNode from, JsonNode to) {
+		return JsonPatch.diff (from, to);
+	}
+
+	public static JsonNode applyPatch (JsonNode node, ArrayNode patch) {
+		return JsonPatch.apply (node, patch, false);
+	}
+
+	public static JsonNode applyPatch (JsonNode node, ArrayNode patch, boolean inPlace) {
+		return JsonPatch.apply (node, patch, inPlace);
+	}
+
+	public static long structuralHash (JsonNode node) {
+		return StructuralHash.hash (node, null);
+	}
+
+	public static long structuralHash (JsonNode node, HashCache cache) {
+		return StructuralHash.hash (node, cache);
+	}
+
+	public static boolean deepEquals (JsonNode left, JsonNode right) {
+		return StructuralHash.equal (left, right, null);
+	}
+
+	public static boolean deepEquals (JsonNode left, JsonNode right, HashCache cache) {
+		return StructuralHash.equal (left, right, cache);
+	}
+
+	public static boolean containsAll (ArrayNode node, ArrayNode entries) {
+		if ( entries.size () == 0 ) { return true; }
+		Set<NodeKey> keys = NodeKey.keys (node);
+		for ( JsonNode entry : entries ) {
+			if ( ! keys.contains (new NodeKey (entry)) ) { return false; }
+		}
+		return true;
+	}
+
+	public static ArrayNode distinct (ArrayNode node) {
+		ArrayNode result = node.arrayNode ();
+		Set<NodeKey> seen = new HashSet<> ();
+		for ( JsonNode element : node ) {
+			if ( seen.add (new NodeKey (element)) ) { result.add (element); }
+		}
+		return result;
+	}
+
+	public static ArrayNode union (ArrayNode left, ArrayNode right) {
+		ArrayNode result = left.arrayNode ();
+		Set<NodeKey> seen = new HashSet<> ();
+		for ( JsonNode element : left ) {
+			if ( seen.add (new NodeKey (element)) ) { result.add (element); }
+		}
+		for ( JsonNode element : right ) {
+			if ( seen.add (new NodeKey (element)) ) { result.add (element); }
+		}
+		return result;
+	}
+
+	public static ArrayNode intersect (ArrayNode left, ArrayNode right) {
+		ArrayNode result = left.arrayNode ();
+		Set<NodeKey> keys = NodeKey.keys (right);
+		for ( JsonNode element : left ) {
+			if ( keys.remove (new NodeKey (element)) ) { result.add (element); }
+		}
+		return result;
+	}
+
+	public static ArrayNode difference (ArrayNode left, ArrayNode right) {
+		ArrayNode result = left.arrayNode ();
+		Set<NodeKey> seen = NodeKey.keys (right);
+		for ( JsonNode element : left ) {
+			if ( seen.add (new NodeKey (element)) ) { result.add (element); }
+		}
+		return result;
+	}
+
 	public static <T> List<T> toList (JsonNode node, Function<JsonNode, T> fn) {
 		if ( node.isArray () ) { return toList ((ArrayNode) node, fn); }
 		throw new JsonException	("Can only convert arrays to lists",
@@ -204,6 +320,44 @@ public class Json {
 		return results;
 	}
 
+	public static Stream<JsonNode> stream (ArrayNode array) {
+		return StreamSupport.stream (new ArraySpliterator (array, 0, array.size ()), false);
+	}
+
+	public static Stream<Map.Entry<String, JsonNode>> stream (ObjectNode object) {
+		return StreamSupport.stream (Spliterators.spliterator (
+			object.fields (), object.size (), Spliterator.ORDERED | Spliterator.NONNULL
+		), false);
+	}
+
+	public static <T> List<T> parallelToList (ArrayNode node, Function<JsonNode, T> fn) {
+		return parallelToList (ForkJoinPool.commonPool (), node, fn);
+	}
+
+	public static <T> List<T> parallelToList (ForkJoinPool pool, ArrayNode node, Function<JsonNode, T> fn) {
+		return pool.submit (() -> stream (node).parallel ().map (fn).collect (Collectors.toList ())).join ();
+	}
+
+	public static ArrayNode parallelMap (ArrayNode in, Function<JsonNode, JsonNode> fn) {
+		return parallelMap (ForkJoinPool.commonPool (), in, fn);
+	}
+
+	public static ArrayNode parallelMap (ForkJoinPool pool, ArrayNode in, Function<JsonNode, JsonNode> fn) {
+		return pool.submit (() -> stream (in).parallel ().map (fn).collect (collectToArray ())).join ();
+	}
+
+	public static <T> T parallelReduce (
+		ArrayNode source, T identity, BiFunction<T, JsonNode, T> fn, BinaryOperator<T> combiner
+	) {
+		return parallelReduce (ForkJoinPool.commonPool (), source, identity, fn, combiner);
+	}
+
+	public static <T> T parallelReduce (
+		ForkJoinPool pool, ArrayNode source, T identity, BiFunction<T, JsonNode, T> fn, BinaryOperator<T> combiner
+	) {
+		return pool.submit (() -> stream (source).parallel ().reduce (identity, fn, combiner)).join ();
+	}
+
 	public static ArrayNode map (JsonNode node, Function<JsonNode, JsonNode> fn) {
 		if ( node.isArray () ) { return map ((ArrayNode) node, fn); }
 		throw new JsonException ("Can only map over arrays",
@@ -254,6 +408,87 @@ public class Json {
 		return result;
 	}
 
+	public static ArrayNode filter (InputStream in, Predicate<JsonNode> fn) {
+		return filter (Mappers.instance, in, fn);
+	}
+
+	public static ArrayNode filter (ObjectMapper mapper, InputStream in, Predicate<JsonNode> fn) {
+		return filter (Mappers.reader (mapper), in, fn);
+	}
+
+	public static ArrayNode filter (ObjectReader reader, InputStream in, Predicate<JsonNode> fn) {
+		ArrayNode result = reader.getConfig ().getNodeFactory ().arrayNode ();
+		filter (parseStream (reader, in), fn, result::add);
+		return result;
+	}
+
+	public static long filter (InputStream in, Predicate<JsonNode> fn, Consumer<JsonNode> sink) {
+		return filter (Mappers.instance, in, fn, sink);
+	}
+
+	public static long filter (ObjectMapper mapper, InputStream in, Predicate<JsonNode> fn, Consumer<JsonNode> sink) {
+		return filter (parseStream (mapper, in), fn, sink);
+	}
+
+	public static ArrayNode filter (Reader in, Predicate<JsonNode> fn) {
+		return filter (Mappers.instance, in, fn);
+	}
+
+	public static ArrayNode filter (ObjectMapper mapper, Reader in, Predicate<JsonNode> fn) {
+		return filter (Mappers.reader (mapper), in, fn);
+	}
+
+	public static ArrayNode filter (ObjectReader reader, Reader in, Predicate<JsonNode> fn) {
+		ArrayNode result = reader.getConfig ().getNodeFactory ().arrayNode ();
+		filter (parseStream (reader, in), fn, result::add);
+		return result;
+	}
+
+	public static long filter (Reader in, Predicate<JsonNode> fn, Consumer<JsonNode> sink) {
+		return filter (Mappers.instance, in, fn, sink);
+	}
+
+	public static long filter (ObjectMapper mapper, Reader in, Predicate<JsonNode> fn, Consumer<JsonNode> sink) {
+		return filter (parseStream (mapper, in), fn, sink);
+	}
+
+	public static ArrayNode filter (Path path, Predicate<JsonNode> fn) {
+		return filter (Mappers.instance, path, fn);
+	}
+
+	public static ArrayNode filter (ObjectMapper mapper, Path path, Predicate<JsonNode> fn) {
+		return filter (Mappers.reader (mapper), path, fn);
+	}
+
+	public static ArrayNode filter (ObjectReader reader, Path path, Predicate<JsonNode> fn) {
+		ArrayNode result = reader.getConfig ().getNodeFactory ().arrayNode ();
+		filter (parseStream (reader, path), fn, result::add);
+		return result;
+	}
+
+	public static long filter (Path path, Predicate<JsonNode> fn, Consumer<JsonNode> sink) {
+		return filter (Mappers.instance, path, fn, sink);
+	}
+
+	public static long filter (ObjectMapper mapper, Path path, Predicate<JsonNode> fn, Consumer<JsonNode> sink) {
+		return filter (parseStream (mapper, path), fn, sink);
+	}
+
+	private static long filter (Stream<JsonNode> elements, Predicate<JsonNode> fn, Consumer<JsonNode> sink) {
+		long kept = 0;
+		try ( Stream<JsonNode> stream = elements ) {
+			Iterator<JsonNode> it = stream.iterator ();
+			while ( it.hasNext () ) {
+				JsonNode element = it.next ();
+				if ( fn.test (element) ) {
+					sink.accept (element);
+					kept++;
+				}
+			}
+		}
+		return kept;
+	}
+
 	public static ArrayNode filterObjects (JsonNode node, Predicate<ObjectNode> fn) {
 		if ( node.isArray () ) { return filterObjects ((ArrayNode) node, fn); }
 		throw new JsonException ("Can only filter arrays",
@@ -289,6 +524,30 @@ public class Json {
 		return MissingNode.getInstance ();
 	}
 
+	public static JsonIndex<JsonNode> index (ArrayNode array, String field) {
+		return JsonIndex.build (array, element -> element.get (field));
+	}
+
+	public static <K> JsonIndex<K> index (ArrayNode array, Function<JsonNode, K> keyFn) {
+		return JsonIndex.build (array, keyFn);
+	}
+
+	public static JsonIndex<JsonNode> parallelIndex (ArrayNode array, String field) {
+		return parallelIndex (ForkJoinPool.commonPool (), array, field);
+	}
+
+	public static JsonIndex<JsonNode> parallelIndex (ForkJoinPool pool, ArrayNode array, String field) {
+		return JsonIndex.build (pool, array, element -> element.get (field));
+	}
+
+	public static <K> JsonIndex<K> parallelIndex (ArrayNode array, Function<JsonNode, K> keyFn) {
+		return parallelIndex (ForkJoinPool.commonPool (), array, keyFn);
+	}
+
+	public static <K> JsonIndex<K> parallelIndex (ForkJoinPool pool, ArrayNode array, Function<JsonNode, K> keyFn) {
+		return JsonIndex.build (pool, array, keyFn);
+	}
+
 	public static ObjectNode findObject (JsonNode node, Predicate<ObjectNode> fn) {
 		if ( node.isArray () ) { return findObject ((ArrayNode) node, fn); }
 		throw new JsonException ("Can only find in arrays", objectNode ("json", node));
@@ -307,6 +566,15 @@ public class Json {
 		});
 	}
 
+	public static JsonPipeline from (JsonNode node) {
+		if ( node.isArray () ) { return from ((ArrayNode) node); }
+		throw new JsonException ("Can only create pipelines from arrays", objectNode ("json", node));
+	}
+
+	public static JsonPipeline from (ArrayNode array) {
+		return new JsonPipeline (array);
+	}
+
 	public static ArrayNode concat (ArrayNode ... arrays) {
 		ArrayNode result = JsonNodeFactory.instance.arrayNode ();
 		for ( ArrayNode array : arrays ) { result.addAll (array); }
@@ -332,6 +600,7 @@ public class Json {
 	}
 
 	public static ObjectNode keep (ObjectNode obj, String... keys) {
+		if ( obj instanceof PersistentObjectNode ) { return ((PersistentObjectNode) obj).keep (keys); }
 		ObjectNode copy = JsonNodeFactory.instance.objectNode ();
 		for ( String key : keys ) {
 			if ( obj.has (key) ) { copy.set (key, obj.get (key)); }
@@ -345,13 +614,62 @@ public class Json {
 	}
 
 	public static ObjectNode purge (ObjectNode obj, String ... keys) {
+		if ( obj instanceof PersistentObjectNode ) { return ((PersistentObjectNode) obj).purge (keys); }
 		ObjectNode copy = JsonNodeFactory.instance.objectNode ();
 		obj.fields ().forEachRemaining (field -> copy.set (field.getKey (), field.getValue ()));
 		for ( String key : keys ) { copy.remove (key); }
 		return copy;
 	}
 
+	public static Accessor accessor (String expression) {
+		return Accessor.of (expression);
+	}
+
+	public static ObjectNode keepPaths (JsonNode node, Accessor ... accessors) {
+		if ( node.isObject () ) { return keepPaths ((ObjectNode) node, accessors); }
+		throw new JsonException ("Can select keys from objects", objectNode ("json", node));
+	}
+
+	public static ObjectNode keepPaths (ObjectNode obj, Accessor ... accessors) {
+		PathTrie trie = PathTrie.of (accessors);
+		if ( trie.terminal () ) { return (ObjectNode) obj.objectNode ().setAll (obj); }
+		JsonNode kept = trie.keep (obj);
+		return kept == null ? obj.objectNode () : (ObjectNode) kept;
+	}
+
+	public static ObjectNode purgePaths (JsonNode node, Accessor ... accessors) {
+		if ( node.isObject () ) { return purgePaths ((ObjectNode) node, accessors); }
+		throw new JsonException ("Can only purge keys from objects", objectNode ("json", node));
+	}
+
+	public static ObjectNode purgePaths (ObjectNode obj, Accessor ... accessors) {
+		PathTrie trie = PathTrie.of (accessors);
+		if ( trie.terminal () ) { return obj.objectNode (); }
+		return (ObjectNode) trie.purge (obj);
+	}
+
+	public static PersistentObjectNode persistent (ObjectNode obj) {
+		return PersistentObjectNode.of (obj);
+	}
+
+	public static PersistentObjectNode keep (PersistentObjectNode obj, String ... keys) {
+		return obj.keep (keys);
+	}
+
+	public static PersistentObjectNode purge (PersistentObjectNode obj, String ... keys) {
+		return obj.purge (keys);
+	}
+
+	public static PersistentObjectNode merge (PersistentObjectNode target, ObjectNode ... sources) {
+		return target.merge (sources);
+	}
+
+	public static PersistentObjectNode mergeAbsent (PersistentObjectNode target, ObjectNode ... sources) {
+		return target.mergeAbsent (sources);
+	}
+
 	public static ObjectNode merge (ObjectNode target, ObjectNode ... sources) {
+		if ( target instanceof PersistentObjectNode ) { return ((PersistentObjectNode) target).merge (sources); }
 		for ( ObjectNode source : sources ) {
 			if ( source == null || source.isNull () || source.isMissingNode () ) { continue; }
 			target.setAll (source);
@@ -360,6 +678,7 @@ public class Json {
 	}
 
 	public static ObjectNode mergeAbsent (ObjectNode target, ObjectNode ... sources) {
+		if ( target instanceof PersistentObjectNode ) { return ((PersistentObjectNode) target).mergeAbsent (sources); }
 		for ( ObjectNode source : sources ) {
 			if ( source == null || source.isNull () || source.isMissingNode () ) { continue; }
 			source.fields ().forEachRemaining (field -> {
@@ -370,6 +689,62 @@ public class Json {
 		return target;
 	}
 
+	public static ObjectNode deepMerge (ObjectNode target, ObjectNode ... sources) {
+		Set<JsonNode> borrowed = Collections.newSetFromMap (new IdentityHashMap<> ());
+		for ( ObjectNode source : sources ) {
+			if ( source == null || source.isNull () || source.isMissingNode () ) { continue; }
+			deepMerge (target, source, borrowed);
+		}
+		return target;
+	}
+
+	public static JsonNode mergePatch (JsonNode target, JsonNode patch) {
+		if ( ! patch.isObject () ) { return patch; }
+
+		ObjectNode result = target != null && target.isObject ()
+			? (ObjectNode) target
+			: ((ObjectNode) patch).objectNode ();
+
+		Iterator<Map.Entry<String, JsonNode>> it = patch.fields ();
+		while ( it.hasNext () ) {
+			Map.Entry<String, JsonNode> field = it.next ();
+			JsonNode value = field.getValue ();
+			if ( value.isNull () ) { result.remove (field.getKey ()); }
+			else if ( value.isObject () ) { result.set (field.getKey (), mergePatch (result.get (field.getKey ()), value)); }
+			else { result.set (field.getKey (), value); }
+		}
+		return result;
+	}
+
+	/*
+	 * Objects taken over from a source are shared with that source. They are only copied,
+	 * one level at a time, when a later source has to be merged into them.
+	 */
+	private static void deepMerge (ObjectNode target, ObjectNode source, Set<JsonNode> borrowed) {
+		Iterator<Map.Entry<String, JsonNode>> it = source.fields ();
+		while ( it.hasNext () ) {
+			Map.Entry<String, JsonNode> field = it.next ();
+			JsonNode value = field.getValue ();
+			JsonNode current = target.get (field.getKey ());
+			if ( current == value ) { continue; }
+
+			if ( current == null || ! current.isObject () || ! value.isObject () ) {
+				target.set (field.getKey (), value);
+				if ( value.isObject () ) { borrowed.add (value); }
+				continue;
+			}
+
+			ObjectNode into = (ObjectNode) current;
+			if ( borrowed.contains (into) ) {
+				into = into.objectNode ();
+				into.setAll ((ObjectNode) current);
+				into.forEach (child -> { if ( child.isObject () ) { borrowed.add (child); } });
+				target.set (field.getKey (), into);
+			}
+			deepMerge (into, (ObjectNode) value, borrowed);
+		}
+	}
+
 	public static ObjectNode computeIfAbsent (JsonNode target, String key, BiFunction<ObjectNode, String, JsonNode> fn) {
 		if ( target.isObject () ) { return computeIfAbsent ((ObjectNode) target, key, fn); }
 		throw new JsonException ("Can only compute mising values on objects", objectNode ("json", target));
@@ -431,6 +806,20 @@ public class Json {
 		return result;
 	}
 
+	public static <T> Map<String, T> toMap (JsonNode node, BiFunction<String, JsonNode, T> fn, Accessor ... accessors) {
+		if ( ! node.isObject () ) {
+			throw new JsonException ("Can only turn objects into maps", objectNode ("json", node));
+		}
+
+		Map<String, T> result = new LinkedHashMap<> ();
+		for ( Accessor accessor : accessors ) {
+			JsonNode value = accessor.get (node);
+			if ( value.isMissingNode () ) { continue; }
+			result.put (accessor.expression (), fn.apply (accessor.expression (), value));
+		}
+		return result;
+	}
+
 	public static JsonNode valueOf (JsonNode node) {
 		return node == null ? JsonNodeFactory.instance.nullNode () : node;
 	}
@@ -487,25 +876,70 @@ public class Json {
 
 	public static JsonNode valueOf (Object value) {
 		if ( value == null ) { return JsonNodeFactory.instance.nullNode (); }
-		if ( value instanceof JsonNode ) { return (JsonNode) value; }
+		return converter (value.getClass ()).apply (value);
+	}
 
-		if ( value instanceof String ) { return valueOf ((String) value); }
-		if ( value instanceof Integer ) { return valueOf ((int) value); }
-		if ( value instanceof Long) { return valueOf ((long) value); }
-		if ( value instanceof Float) { return valueOf ((float) value); }
-		if ( value instanceof Double) { return valueOf ((double) value); }
-		if ( value instanceof Boolean ) { return valueOf ((boolean) value); }
+	public static <T> void registerConverter (Class<T> clazz, Function<? super T, ? extends JsonNode> fn) {
+		synchronized ( Json.class ) {
+			Map<Class<?>, Function<Object, JsonNode>> updated = new HashMap<> (converters);
+			updated.put (clazz, value -> valueOf (fn.apply (clazz.cast (value))));
+			converters = updated;
+			dispatch = dispatch (updated);
+		}
+	}
+
+	private static volatile Map<Class<?>, Function<Object, JsonNode>> converters = defaultConverters ();
+	private static volatile ClassValue<Function<Object, JsonNode>> dispatch = dispatch (converters);
+
+	private static Function<Object, JsonNode> converter (Class<?> clazz) {
+		return dispatch.get (clazz);
+	}
+
+	private static Map<Class<?>, Function<Object, JsonNode>> defaultConverters () {
+		Map<Class<?>, Function<Object, JsonNode>> converters = new HashMap<> ();
 
-		if ( value instanceof BigInteger ) { return valueOf ((BigInteger) value); }
-		if ( value instanceof BigDecimal ) { return valueOf ((BigDecimal) value); }
-		if ( value instanceof Byte) { return valueOf ((byte) value); }
-		if ( value instanceof Short) { return valueOf ((short) value); }
-		if ( value instanceof byte [] ) { return valueOf ((byte []) value); }
+		converters.put (JsonNode.class, value -> (JsonNode) value);
 
-		if ( value instanceof Map ) { return objectNode ((Map) value); }
-		if ( value instanceof Collection ) { return arrayNode ((Collection) value); }
+		converters.put (String.class, value -> valueOf ((String) value));
+		converters.put (Integer.class, value -> valueOf ((int) value));
+		converters.put (Long.class, value -> valueOf ((long) value));
+		converters.put (Float.class, value -> valueOf ((float) value));
+		converters.put (Double.class, value -> valueOf ((double) value));
+		converters.put (Boolean.class, value -> valueOf ((boolean) value));
 
-		return JsonNodeFactory.instance.pojoNode (value);
+		converters.put (BigInteger.class, value -> valueOf ((BigInteger) value));
+		converters.put (BigDecimal.class, value -> valueOf ((BigDecimal) value));
+		converters.put (Byte.class, value -> valueOf ((byte) value));
+		converters.put (Short.class, value -> valueOf ((short) value));
+		converters.put (byte [].class, value -> valueOf ((byte []) value));
+
+		converters.put (Map.class, value -> objectNode ((Map) value));
+		converters.put (Collection.class, value -> arrayNode ((Collection) value));
+
+		return converters;
+	}
+
+	private static ClassValue<Function<Object, JsonNode>> dispatch (Map<Class<?>, Function<Object, JsonNode>> converters) {
+		return new ClassValue<Function<Object, JsonNode>> () {
+			@Override protected Function<Object, JsonNode> computeValue (Class<?> type) {
+				for ( Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass () ) {
+					if ( converters.containsKey (c) ) { return converters.get (c); }
+				}
+
+				Deque<Class<?>> pending = new ArrayDeque<> ();
+				for ( Class<?> c = type; c != null; c = c.getSuperclass () ) {
+					pending.addAll (Arrays.asList (c.getInterfaces ()));
+				}
+				while ( ! pending.isEmpty () ) {
+					Class<?> c = pending.removeFirst ();
+					if ( converters.containsKey (c) ) { return converters.get (c); }
+					pending.addAll (Arrays.asList (c.getInterfaces ()));
+				}
+
+				if ( converters.containsKey (Object.class) ) { return converters.get (Object.class); }
+				return JsonNodeFactory.instance::pojoNode;
+			}
+		};
 	}
 
 	public static String stringify (Object node) {
@@ -513,8 +947,7 @@ public class Json {
 	}
 
 	public static String stringify (ObjectMapper mapper, Object node) {
-		try { return mapper.writeValueAsString (node); }
-		catch ( IOException e ) { throw new RuntimeException (e); }
+		return stringify (Mappers.writer (mapper), node);
 	}
 
 	public static String stringify (ObjectWriter writer, Object node) {
@@ -522,12 +955,128 @@ public class Json {
 		catch ( IOException e ) { throw new RuntimeException (e); }
 	}
 
+	public static byte [] stringifyBytes (Object node) {
+		return stringifyBytes (Mappers.instance, node);
+	}
+
+	public static byte [] stringifyBytes (ObjectMapper mapper, Object node) {
+		return stringifyBytes (Mappers.writer (mapper), node);
+	}
+
+	public static byte [] stringifyBytes (ObjectWriter writer, Object node) {
+		try { return writer.writeValueAsBytes (node); }
+		catch ( IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static void stringifyTo (OutputStream out, Object node) {
+		stringifyTo (Mappers.instance, out, node);
+	}
+
+	public static void stringifyTo (ObjectMapper mapper, OutputStream out, Object node) {
+		stringifyTo (Mappers.writer (mapper), out, node);
+	}
+
+	public static void stringifyTo (ObjectWriter writer, OutputStream out, Object node) {
+		try ( JsonGenerator gen = generator (writer.getFactory ().createGenerator (out, JsonEncoding.UTF8)) ) {
+			writer.writeValue (gen, node);
+		} catch ( IOException e ) {
+			throw new RuntimeException (e);
+		}
+	}
+
+	public static long writeLines (OutputStream out, Stream<?> records) {
+		return writeLines (Mappers.instance, out, records.iterator ());
+	}
+
+	public static long writeLines (OutputStream out, Iterator<?> records) {
+		return writeLines (Mappers.instance, out, records);
+	}
+
+	public static long writeLines (WritableByteChannel out, Stream<?> records) {
+		return writeLines (Mappers.instance, Channels.newOutputStream (out), records.iterator ());
+	}
+
+	public static long writeLines (WritableByteChannel out, Iterator<?> records) {
+		return writeLines (Mappers.instance, Channels.newOutputStream (out), records);
+	}
+
+	public static long writeLines (ObjectMapper mapper, OutputStream out, Stream<?> records) {
+		return writeLines (Mappers.writer (mapper), out, records.iterator ());
+	}
+
+	public static long writeLines (ObjectMapper mapper, OutputStream out, Iterator<?> records) {
+		return writeLines (Mappers.writer (mapper), out, records);
+	}
+
+	public static long writeLines (ObjectMapper mapper, WritableByteChannel out, Stream<?> records) {
+		return writeLines (Mappers.writer (mapper), Channels.newOutputStream (out), records.iterator ());
+	}
+
+	public static long writeLines (ObjectMapper mapper, WritableByteChannel out, Iterator<?> records) {
+		return writeLines (Mappers.writer (mapper), Channels.newOutputStream (out), records);
+	}
+
+	public static long writeLines (ObjectWriter writer, OutputStream out, Stream<?> records) {
+		return writeLines (writer, out, records.iterator ());
+	}
+
+	public static long writeLines (ObjectWriter writer, OutputStream out, Iterator<?> records) {
+		return writeLines (writer, out, records, FLUSH_BYTES, FLUSH_RECORDS);
+	}
+
+	public static long writeLines (ObjectWriter writer, WritableByteChannel out, Stream<?> records) {
+		return writeLines (writer, Channels.newOutputStream (out), records.iterator ());
+	}
+
+	public static long writeLines (ObjectWriter writer, WritableByteChannel out, Iterator<?> records) {
+		return writeLines (writer, Channels.newOutputStream (out), records);
+	}
+
+	public static long writeLines (
+		ObjectWriter writer, OutputStream out, Iterator<?> records, long flushBytes, long flushRecords
+	) {
+		CountingOutputStream counted = new CountingOutputStream (out);
+		ObjectWriter lines = writer
+			.without (SerializationFeature.FLUSH_AFTER_WRITE_VALUE, SerializationFeature.INDENT_OUTPUT)
+			.with (new MinimalPrettyPrinter (""));
+
+		long count = 0;
+		try (
+			JsonGenerator gen = generator (lines.getFactory ().createGenerator (counted, JsonEncoding.UTF8));
+			SequenceWriter sequence = lines.writeValues (gen)
+		) {
+			gen.setRootValueSeparator (null);
+
+			long flushedAt = 0;
+			long flushedRecords = 0;
+			while ( records.hasNext () ) {
+				sequence.write (records.next ());
+				gen.writeRaw ('\n');
+				count++;
+
+				if ( count - flushedRecords >= flushRecords || counted.count - flushedAt >= flushBytes ) {
+					gen.flush ();
+					flushedAt = counted.count;
+					flushedRecords = count;
+				}
+			}
+
+			return count;
+		} catch ( IOException e ) {
+			throw new RuntimeException (e);
+		}
+	}
+
+	private static JsonGenerator generator (JsonGenerator gen) {
+		return gen.disable (JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
 	public static String prettyStringify (Object node) {
 		return prettyStringify (Mappers.instance, node);
 	}
 
 	public static String prettyStringify (ObjectMapper mapper, Object node) {
-		return stringify (mapper.writerWithDefaultPrettyPrinter (), node);
+		return stringify (Mappers.prettyWriter (mapper), node);
 	}
 
 	public static String prettyStringify (ObjectWriter writer, Object node) {
@@ -541,9 +1090,7 @@ public class Json {
 
 	public static <T extends JsonNode> T parse (ObjectMapper mapper, String json)
 	throws JsonParseException {
-		try { return (T) mapper.readTree (json); }
-		catch (JsonParseException e ) { throw e; }
-		catch (IOException e ) { throw new RuntimeException (e); }
+		return parse (Mappers.reader (mapper), json);
 	}
 
 	public static <T extends JsonNode> T parse (ObjectReader reader, String json)
@@ -553,4 +1100,366 @@ public class Json {
 		catch (IOException e ) { throw new RuntimeException (e); }
 	}
 
+	public static <T extends JsonNode> T parse (byte [] json)
+	throws JsonParseException {
+		return parse (Mappers.instance, json, 0, json.length);
+	}
+
+	public static <T extends JsonNode> T parse (byte [] json, int off, int len)
+	throws JsonParseException {
+		return parse (Mappers.instance, json, off, len);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectMapper mapper, byte [] json, int off, int len)
+	throws JsonParseException {
+		return parse (Mappers.reader (mapper), json, off, len);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectReader reader, byte [] json, int off, int len)
+	throws JsonParseException {
+		try { return readTree (reader, reader.getFactory ().createParser (json, off, len)); }
+		catch (JsonParseException e ) { throw e; }
+		catch (IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static <T extends JsonNode> T parse (ByteBuffer json)
+	throws JsonParseException {
+		return parse (Mappers.instance, json);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectMapper mapper, ByteBuffer json)
+	throws JsonParseException {
+		return parse (Mappers.reader (mapper), json);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectReader reader, ByteBuffer json)
+	throws JsonParseException {
+		if ( json.hasArray () ) {
+			return parse (reader, json.array (), json.arrayOffset () + json.position (), json.remaining ());
+		}
+		return parse (reader, new ByteBufferBackedInputStream (json.duplicate ()));
+	}
+
+	public static <T extends JsonNode> T parse (InputStream json)
+	throws JsonParseException {
+		return parse (Mappers.instance, json);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectMapper mapper, InputStream json)
+	throws JsonParseException {
+		return parse (Mappers.reader (mapper), json);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectReader reader, InputStream json)
+	throws JsonParseException {
+		try { return readTree (reader, reader.getFactory ().createParser (json)); }
+		catch (JsonParseException e ) { throw e; }
+		catch (IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static <T extends JsonNode> T parse (Path json)
+	throws JsonParseException {
+		return parse (Mappers.instance, json);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectMapper mapper, Path json)
+	throws JsonParseException {
+		return parse (Mappers.reader (mapper), json);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectReader reader, Path json)
+	throws JsonParseException {
+		try ( InputStream in = MappedInputStream.open (json) ) { return readTree (reader, reader.getFactory ().createParser (in)); }
+		catch (JsonParseException e ) { throw e; }
+		catch (IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static <T extends JsonNode> T parse (String json, Projection projection)
+	throws JsonParseException {
+		return parse (Mappers.instance, json, projection);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectMapper mapper, String json, Projection projection)
+	throws JsonParseException {
+		return parse (Mappers.reader (mapper), json, projection);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectReader reader, String json, Projection projection)
+	throws JsonParseException {
+		try { return project (reader, reader.getFactory ().createParser (json), projection); }
+		catch (JsonParseException e ) { throw e; }
+		catch (IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static <T extends JsonNode> T parse (byte [] json, Projection projection)
+	throws JsonParseException {
+		return parse (Mappers.instance, json, projection);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectMapper mapper, byte [] json, Projection projection)
+	throws JsonParseException {
+		return parse (Mappers.reader (mapper), json, projection);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectReader reader, byte [] json, Projection projection)
+	throws JsonParseException {
+		try { return project (reader, reader.getFactory ().createParser (json), projection); }
+		catch (JsonParseException e ) { throw e; }
+		catch (IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static <T extends JsonNode> T parse (InputStream json, Projection projection)
+	throws JsonParseException {
+		return parse (Mappers.instance, json, projection);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectMapper mapper, InputStream json, Projection projection)
+	throws JsonParseException {
+		return parse (Mappers.reader (mapper), json, projection);
+	}
+
+	public static <T extends JsonNode> T parse (ObjectReader reader, InputStream json, Projection projection)
+	throws JsonParseException {
+		try { return project (reader, reader.getFactory ().createParser (json), projection); }
+		catch (JsonParseException e ) { throw e; }
+		catch (IOException e ) { throw new RuntimeException (e); }
+	}
+
+	private static <T extends JsonNode> T project (ObjectReader reader, JsonParser parser, Projection projection)
+	throws IOException {
+		try ( JsonParser p = parser ) { return (T) projection.read (reader, p); }
+	}
+
+	private static <T extends JsonNode> T readTree (ObjectCodec codec, JsonParser parser)
+	throws IOException {
+		try ( JsonParser p = parser ) { return (T) codec.readTree (p); }
+	}
+
+	public static AsyncParser asyncParser (Consumer<JsonNode> consumer) {
+		return asyncParser (Mappers.instance, consumer);
+	}
+
+	public static AsyncParser asyncParser (ObjectMapper mapper, Consumer<JsonNode> consumer) {
+		return new AsyncParser (mapper, consumer);
+	}
+
+	public static Stream<JsonNode> parseStream (InputStream in) {
+		return parseStream (Mappers.instance, in);
+	}
+
+	public static Stream<JsonNode> parseStream (ObjectMapper mapper, InputStream in) {
+		return parseStream (Mappers.reader (mapper), in);
+	}
+
+	public static Stream<JsonNode> parseStream (ObjectReader reader, InputStream in) {
+		try { return parseStream (reader, reader.getFactory ().createParser (in)); }
+		catch ( IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static Stream<JsonNode> parseStream (Reader in) {
+		return parseStream (Mappers.instance, in);
+	}
+
+	public static Stream<JsonNode> parseStream (ObjectMapper mapper, Reader in) {
+		return parseStream (Mappers.reader (mapper), in);
+	}
+
+	public static Stream<JsonNode> parseStream (ObjectReader reader, Reader in) {
+		try { return parseStream (reader, reader.getFactory ().createParser (in)); }
+		catch ( IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static Stream<JsonNode> parseStream (Path path) {
+		return parseStream (Mappers.instance, path);
+	}
+
+	public static Stream<JsonNode> parseStream (ObjectMapper mapper, Path path) {
+		return parseStream (Mappers.reader (mapper), path);
+	}
+
+	public static Stream<JsonNode> parseStream (ObjectReader reader, Path path) {
+		try {
+			InputStream in = MappedInputStream.open (path);
+			try { return parseStream (reader, reader.getFactory ().createParser (in)); }
+			catch ( IOException | RuntimeException e ) {
+				in.close ();
+				throw e;
+			}
+		}
+		catch ( IOException e ) { throw new RuntimeException (e); }
+	}
+
+	public static void parseLinesParallel (Path path, Consumer<JsonNode> consumer)
+	throws JsonParseException {
+		parseLinesParallel (Mappers.instance, path, ForkJoinPool.commonPool (), consumer);
+	}
+
+	public static void parseLinesParallel (ObjectMapper mapper, Path path, Consumer<JsonNode> consumer)
+	throws JsonParseException {
+		parseLinesParallel (mapper, path, ForkJoinPool.commonPool (), consumer);
+	}
+
+	public static void parseLinesParallel (
+		ObjectMapper mapper, Path path, Executor executor, Consumer<JsonNode> consumer
+	) throws JsonParseException {
+		parseLinesParallel (mapper, path, executor, Collector.of (
+			() -> consumer,
+			Consumer::accept,
+			(l, r) -> l,
+			fn -> null
+		));
+	}
+
+	public static <R> R parseLinesParallel (Path path, Collector<JsonNode, ?, R> collector)
+	throws JsonParseException {
+		return parseLinesParallel (Mappers.instance, path, ForkJoinPool.commonPool (), collector);
+	}
+
+	public static <R> R parseLinesParallel (ObjectMapper mapper, Path path, Collector<JsonNode, ?, R> collector)
+	throws JsonParseException {
+		return parseLinesParallel (mapper, path, ForkJoinPool.commonPool (), collector);
+	}
+
+	public static <A, R> R parseLinesParallel (
+		ObjectMapper mapper, Path path, Executor executor, Collector<JsonNode, A, R> collector
+	) throws JsonParseException {
+		ObjectReader reader = Mappers.reader (mapper);
+
+		List<ByteBuffer> ranges;
+		try { ranges = LineRanges.map (path); }
+		catch ( IOException e ) { throw new RuntimeException (e); }
+
+		/* Once a range fails the others stop parsing, and ranges that have not started are cancelled. */
+		AtomicBoolean failed = new AtomicBoolean ();
+		List<CompletableFuture<A>> parts = new ArrayList<> ();
+		for ( ByteBuffer range : ranges ) {
+			parts.add (CompletableFuture.supplyAsync (() -> {
+				A container = collector.supplier ().get ();
+				try ( JsonParser parser = reader.getFactory ().createParser (new ByteBufferBackedInputStream (range)) ) {
+					while ( ! failed.get () && parser.nextToken () != null ) {
+						collector.accumulator ().accept (container, reader.readTree (parser));
+					}
+				} catch ( IOException e ) {
+					failed.set (true);
+					throw new CompletionException (e);
+				} catch ( RuntimeException e ) {
+					failed.set (true);
+					throw e;
+				}
+				return container;
+			}, executor));
+		}
+
+		try {
+			A result = collector.supplier ().get ();
+			for ( CompletableFuture<A> part : parts ) {
+				result = collector.combiner ().apply (result, part.join ());
+			}
+			return collector.finisher ().apply (result);
+		} catch ( CompletionException e ) {
+			failed.set (true);
+			for ( CompletableFuture<A> part : parts ) { part.cancel (false); }
+			if ( e.getCause () instanceof JsonParseException ) { throw (JsonParseException) e.getCause (); }
+			if ( e.getCause () instanceof RuntimeException ) { throw (RuntimeException) e.getCause (); }
+			throw new RuntimeException (e.getCause ());
+		}
+	}
+
+	private static Stream<JsonNode> parseStream (ObjectCodec codec, JsonParser parser) {
+		return StreamSupport.stream (new NodeSpliterator (codec, parser), false).onClose (() -> {
+			try { parser.close (); }
+			catch ( IOException e ) { throw new RuntimeException (e); }
+		});
+	}
+
+	private static class CountingOutputStream extends FilterOutputStream {
+		private long count;
+
+		CountingOutputStream (OutputStream out) {
+			super (out);
+		}
+
+		@Override public void write (int b) throws IOException {
+			out.write (b);
+			count++;
+		}
+
+		@Override public void write (byte [] bytes, int off, int len) throws IOException {
+			out.write (bytes, off, len);
+			count += len;
+		}
+	}
+
+	private static class ArraySpliterator implements Spliterator<JsonNode> {
+		private final ArrayNode array;
+		private int index;
+		private final int end;
+
+		ArraySpliterator (ArrayNode array, int index, int end) {
+			this.array = array;
+			this.index = index;
+			this.end = end;
+		}
+
+		@Override public boolean tryAdvance (Consumer<? super JsonNode> action) {
+			if ( index >= end ) { return false; }
+			action.accept (array.get (index++));
+			return true;
+		}
+
+		@Override public void forEachRemaining (Consumer<? super JsonNode> action) {
+			for ( ; index < end; index++ ) { action.accept (array.get (index)); }
+		}
+
+		@Override public Spliterator<JsonNode> trySplit () {
+			int middle = (index + end) >>> 1;
+			if ( middle <= index ) { return null; }
+			Spliterator<JsonNode> prefix = new ArraySpliterator (array, index, middle);
+			index = middle;
+			return prefix;
+		}
+
+		@Override public long estimateSize () {
+			return end - index;
+		}
+
+		@Override public int characteristics () {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+		}
+	}
+
+	private static class NodeSpliterator extends Spliterators.AbstractSpliterator<JsonNode> {
+		private final ObjectCodec codec;
+		private final JsonParser parser;
+		private boolean started = false;
+		private boolean array = false;
+
+		NodeSpliterator (ObjectCodec codec, JsonParser parser) {
+			super (Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.codec = codec;
+			this.parser = parser;
+		}
+
+		@Override public boolean tryAdvance (Consumer<? super JsonNode> action) {
+			try {
+				JsonToken token = parser.nextToken ();
+
+				if ( ! started ) {
+					started = true;
+					if ( token == JsonToken.START_ARRAY ) {
+						array = true;
+						token = parser.nextToken ();
+					}
+				}
+
+				if ( token == null || (array && token == JsonToken.END_ARRAY) ) { return false; }
+
+				action.accept (codec.readTree (parser));
+				return true;
+			} catch ( IOException e ) {
+				throw new RuntimeException (e);
+			}
+		}
+	}
+
 }
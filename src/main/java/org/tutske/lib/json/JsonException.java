@@ -1,28 +1,41 @@
 package org.tutske.lib.json;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
 import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.AbstractMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 
 public class JsonException extends RuntimeException {
 
-	protected final ObjectNode data = Json.objectNode ();
+	private static final long serialVersionUID = 1L;
+
+	protected final ObjectNode data = new Data ();
 
 	public JsonException () {}
 	public JsonException (String message) { super (message); }
 	public JsonException (String message, Throwable cause) { super (message, cause); }
-	public JsonException (Throwable cause) { super (cause.getMessage (), cause); }
+	public JsonException (Throwable cause) {
+		super (cause.getMessage (), cause);
+		if ( cause instanceof JsonException ) { this.data.setAll (((JsonException) cause).getData ()); }
+	}
 	public JsonException (JsonException cause) {
 		super (cause.getMessage (), cause);
-		this.data.setAll (cause.data);
+		this.data.setAll (cause.getData ());
 	}
 
 	public JsonException (ObjectNode data) {
@@ -34,8 +47,23 @@ public class JsonException extends RuntimeException {
 		this.data.setAll (data);
 	}
 
+	public JsonException (String message, Supplier<ObjectNode> data) {
+		super (message);
+		((Data) this.data).fields.pending = data;
+	}
+
+	/* Without a stack trace the cause is fixed at construction, so these can not get one later. */
+	public JsonException (String message, Supplier<ObjectNode> data, boolean writableStackTrace) {
+		super (message, null, true, writableStackTrace);
+		((Data) this.data).fields.pending = data;
+	}
+
+	public ObjectNode getData () {
+		return data;
+	}
+
 	public void addExtra (ObjectNode extra) {
-		this.data.setAll (extra);
+		getData ().setAll (extra);
 	}
 
 	public static class JacksonSerializer extends StdSerializer<JsonException> {
@@ -47,7 +75,7 @@ public class JsonException extends RuntimeException {
 			gen.writeStringField ("status", "nok");
 			gen.writeStringField ("error", value.getMessage ());
 
-			Iterator<Map.Entry<String, JsonNode>> it = value.data.fields ();
+			Iterator<Map.Entry<String, JsonNode>> it = value.getData ().fields ();
 			while ( it.hasNext () ) {
 				Map.Entry<String, JsonNode> field = it.next ();
 				gen.writeObjectField (field.getKey (), field.getValue ());
@@ -61,4 +89,63 @@ public class JsonException extends RuntimeException {
 		module.addSerializer (JsonException.class, new JacksonSerializer ());
 	}
 
+	/* Object nodes are not serializable themselves, so the data travels as its json text. */
+	@SuppressWarnings ("unchecked")
+	private static final class Data extends ObjectNode implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private final Fields fields;
+
+		Data () { this (new Fields ()); }
+		private Data (Fields fields) {
+			super (JsonNodeFactory.instance, fields);
+			this.fields = fields;
+		}
+
+		private Object writeReplace () { return new SerializedData (Json.stringify (this)); }
+	}
+
+	private static final class SerializedData implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private final String json;
+
+		SerializedData (String json) { this.json = json; }
+
+		private Object readResolve () throws InvalidObjectException {
+			Data data = new Data ();
+			try { data.setAll (Json.<ObjectNode>parse (json)); }
+			catch ( JsonParseException e ) {
+				InvalidObjectException exception = new InvalidObjectException ("Can not read the exception data");
+				exception.initCause (e);
+				throw exception;
+			}
+			return data;
+		}
+	}
+
+	/* Builds lazily supplied data the first time the fields are looked at, through any route. */
+	private static final class Fields extends AbstractMap<String, JsonNode> {
+		private final Map<String, JsonNode> values = new LinkedHashMap<> ();
+		private volatile Supplier<ObjectNode> pending;
+
+		private Map<String, JsonNode> resolved () {
+			if ( pending == null ) { return values; }
+			synchronized ( this ) {
+				if ( pending != null ) {
+					ObjectNode supplied = pending.get ();
+					pending = null;
+					if ( supplied != null ) { supplied.fields ().forEachRemaining (e -> values.put (e.getKey (), e.getValue ())); }
+				}
+			}
+			return values;
+		}
+
+		@Override public int size () { return resolved ().size (); }
+		@Override public boolean containsKey (Object key) { return resolved ().containsKey (key); }
+		@Override public JsonNode get (Object key) { return resolved ().get (key); }
+		@Override public JsonNode put (String key, JsonNode value) { return resolved ().put (key, value); }
+		@Override public JsonNode remove (Object key) { return resolved ().remove (key); }
+		@Override public void clear () { pending = null; values.clear (); }
+		@Override public Set<Entry<String, JsonNode>> entrySet () { return resolved ().entrySet (); }
+	}
+
 }
@@ -0,0 +1,103 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BigIntegerNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+public class JsonIndex<K> {
+
+	static <K> JsonIndex<K> build (ArrayNode array, Function<JsonNode, K> keyFn) {
+		Map<Object, List<JsonNode>> groups = new HashMap<> ();
+		for ( JsonNode element : array ) {
+			K key = keyFn.apply (element);
+			if ( key != null ) { groups.computeIfAbsent (normalize (key), k -> new ArrayList<> (1)).add (element); }
+		}
+		return new JsonIndex<> (groups);
+	}
+
+	static <K> JsonIndex<K> build (ForkJoinPool pool, ArrayNode array, Function<JsonNode, K> keyFn) {
+		Map<Object, List<JsonNode>> groups = pool.submit (() -> IntStream.range (0, array.size ()).parallel ()
+			.mapToObj (i -> new SimpleImmutableEntry<> (normalize (keyFn.apply (array.get (i))), array.get (i)))
+			.filter (entry -> entry.getKey () != null)
+			.collect (Collectors.groupingBy (Map.Entry::getKey, Collectors.mapping (Map.Entry::getValue, Collectors.toList ())))
+		).join ();
+
+		return new JsonIndex<> (groups);
+	}
+
+	/* Numeric json keys are compared by value, so a parsed 1 and Json.valueOf (1L) find each other. */
+	private static Object normalize (Object key) {
+		if ( ! (key instanceof JsonNode) || ! ((JsonNode) key).isNumber () ) { return key; }
+
+		JsonNode number = (JsonNode) key;
+		if ( number.isIntegralNumber () ) {
+			return number.canConvertToLong ()
+				? LongNode.valueOf (number.longValue ())
+				: BigIntegerNode.valueOf (number.bigIntegerValue ());
+		}
+		if ( number.isBigDecimal () ) {
+			BigDecimal value = number.decimalValue ();
+			if ( value.signum () == 0 ) { return LongNode.valueOf (0); }
+			value = value.stripTrailingZeros ();
+			if ( value.scale () <= 0 ) { return normalize (BigIntegerNode.valueOf (value.toBigIntegerExact ())); }
+			double approximation = value.doubleValue ();
+			boolean exact = ! Double.isInfinite (approximation) && new BigDecimal (approximation).compareTo (value) == 0;
+			return exact ? DoubleNode.valueOf (approximation) : DecimalNode.valueOf (value);
+		}
+
+		double value = number.doubleValue ();
+		if ( value == Math.rint (value) && Math.abs (value) < 0x1p63 ) { return LongNode.valueOf ((long) value); }
+		return DoubleNode.valueOf (value);
+	}
+
+	private final Map<Object, Object> entries;
+
+	private JsonIndex (Map<Object, List<JsonNode>> groups) {
+		Map<Object, Object> entries = new HashMap<> (Math.max (16, groups.size () * 4 / 3 + 1));
+		groups.forEach ((key, elements) -> entries.put (key,
+			elements.size () == 1 ? elements.get (0) : elements.toArray (new JsonNode [0])
+		));
+		this.entries = Collections.unmodifiableMap (entries);
+	}
+
+	public JsonNode get (K key) {
+		Object entry = entries.get (normalize (key));
+		if ( entry == null ) { return MissingNode.getInstance (); }
+		return entry instanceof JsonNode ? (JsonNode) entry : ((JsonNode []) entry)[0];
+	}
+
+	public ArrayNode getAll (K key) {
+		ArrayNode result = JsonNodeFactory.instance.arrayNode ();
+		Object entry = entries.get (normalize (key));
+		if ( entry instanceof JsonNode ) { result.add ((JsonNode) entry); }
+		else if ( entry != null ) { for ( JsonNode element : (JsonNode []) entry ) { result.add (element); } }
+		return result;
+	}
+
+	public boolean contains (K key) {
+		return entries.containsKey (normalize (key));
+	}
+
+	public int size () {
+		return entries.size ();
+	}
+
+}
@@ -0,0 +1,309 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+
+class JsonPatch {
+
+	private static final int MAX_LCS_CELLS = 1 << 20;
+
+	static ArrayNode diff (JsonNode from, JsonNode to) {
+		ArrayNode operations = Json.arrayNode ();
+		new Differ (operations).node (from, to, "");
+		return operations;
+	}
+
+	static JsonNode apply (JsonNode node, ArrayNode patch, boolean inPlace) {
+		return new Applier (node, inPlace).apply (patch);
+	}
+
+	private static final class Differ {
+		private final ArrayNode operations;
+		private final HashCache hashes = new HashCache ();
+
+		Differ (ArrayNode operations) {
+			this.operations = operations;
+		}
+
+		void node (JsonNode from, JsonNode to, String path) {
+			if ( from == to ) { return; }
+			if ( from.isObject () && to.isObject () ) { object (from, to, path); }
+			else if ( from.isArray () && to.isArray () ) { array (from, to, path); }
+			else if ( ! from.equals (to) ) { operation ("replace", path).set ("value", to); }
+		}
+
+		private void object (JsonNode from, JsonNode to, String path) {
+			Iterator<Map.Entry<String, JsonNode>> it = from.fields ();
+			while ( it.hasNext () ) {
+				String key = it.next ().getKey ();
+				if ( ! to.has (key) ) { operation ("remove", child (path, key)); }
+			}
+
+			it = to.fields ();
+			while ( it.hasNext () ) {
+				Map.Entry<String, JsonNode> field = it.next ();
+				JsonNode previous = from.get (field.getKey ());
+				String location = child (path, field.getKey ());
+				if ( previous == null ) { operation ("add", location).set ("value", field.getValue ()); }
+				else { node (previous, field.getValue (), location); }
+			}
+		}
+
+		private void array (JsonNode from, JsonNode to, String path) {
+			int start = 0;
+			int fromEnd = from.size ();
+			int toEnd = to.size ();
+
+			while ( start < fromEnd && start < toEnd && same (from.get (start), to.get (start)) ) { start++; }
+			while ( fromEnd > start && toEnd > start && same (from.get (fromEnd - 1), to.get (toEnd - 1)) ) {
+				fromEnd--;
+				toEnd--;
+			}
+
+			int n = fromEnd - start;
+			int m = toEnd - start;
+			if ( n == 0 || m == 0 || (long) (n + 1) * (m + 1) > MAX_LCS_CELLS ) {
+				gap (from, start, fromEnd, to, start, toEnd, start, path);
+				return;
+			}
+
+			long [] fromHashes = new long [n];
+			long [] toHashes = new long [m];
+			for ( int i = 0; i < n; i++ ) { fromHashes[i] = hashes.hash (from.get (start + i)); }
+			for ( int j = 0; j < m; j++ ) { toHashes[j] = hashes.hash (to.get (start + j)); }
+
+			int [] lengths = new int [(n + 1) * (m + 1)];
+			for ( int i = n - 1; i >= 0; i-- ) {
+				for ( int j = m - 1; j >= 0; j-- ) {
+					lengths[i * (m + 1) + j] = fromHashes[i] == toHashes[j]
+						? lengths[(i + 1) * (m + 1) + j + 1] + 1
+						: Math.max (lengths[(i + 1) * (m + 1) + j], lengths[i * (m + 1) + j + 1]);
+				}
+			}
+
+			int i = 0, j = 0, gapFrom = 0, gapTo = 0;
+			int position = start;
+			while ( i < n && j < m ) {
+				if ( fromHashes[i] == toHashes[j] ) {
+					position = gap (from, start + gapFrom, start + i, to, start + gapTo, start + j, position, path);
+					node (from.get (start + i), to.get (start + j), path + "/" + position);
+					position++;
+					gapFrom = ++i;
+					gapTo = ++j;
+				}
+				else if ( lengths[(i + 1) * (m + 1) + j] >= lengths[i * (m + 1) + j + 1] ) { i++; }
+				else { j++; }
+			}
+			gap (from, start + gapFrom, fromEnd, to, start + gapTo, toEnd, position, path);
+		}
+
+		/* Pairs up removed and inserted elements in a gap, so changed elements become nested patches. */
+		private int gap (JsonNode from, int fromStart, int fromEnd, JsonNode to, int toStart, int toEnd, int position, String path) {
+			int paired = Math.min (fromEnd - fromStart, toEnd - toStart);
+			for ( int k = 0; k < paired; k++ ) {
+				node (from.get (fromStart + k), to.get (toStart + k), path + "/" + position);
+				position++;
+			}
+			for ( int k = fromStart + paired; k < fromEnd; k++ ) {
+				operation ("remove", path + "/" + position);
+			}
+			for ( int k = toStart + paired; k < toEnd; k++ ) {
+				operation ("add", path + "/" + position).set ("value", to.get (k));
+				position++;
+			}
+			return position;
+		}
+
+		private boolean same (JsonNode left, JsonNode right) {
+			if ( left == right ) { return true; }
+			if ( left.isContainerNode () && right.isContainerNode () ) { return Json.deepEquals (left, right, hashes); }
+			return left.equals (right);
+		}
+
+		private ObjectNode operation (String op, String path) {
+			ObjectNode operation = operations.addObject ();
+			operation.put ("op", op);
+			operation.put ("path", path);
+			return operation;
+		}
+
+		private static String child (String path, String key) {
+			if ( key.indexOf ('~') < 0 && key.indexOf ('/') < 0 ) { return path + "/" + key; }
+			return path + "/" + key.replace ("~", "~0").replace ("/", "~1");
+		}
+	}
+
+	private static final class Applier {
+		private final boolean inPlace;
+		private final Set<JsonNode> owned = Collections.newSetFromMap (new IdentityHashMap<> ());
+		private JsonNode root;
+
+		Applier (JsonNode root, boolean inPlace) {
+			this.root = root;
+			this.inPlace = inPlace;
+		}
+
+		JsonNode apply (ArrayNode patch) {
+			for ( int i = 0; i < patch.size (); i++ ) {
+				JsonNode operation = patch.get (i);
+				String op = required (operation, i, "op").asText ();
+				Accessor path = pointer (operation, i, "path");
+
+				switch ( op ) {
+					case "add": add (path, required (operation, i, "value").deepCopy (), i); break;
+					case "remove": remove (path, i); break;
+					case "replace": replace (path, required (operation, i, "value").deepCopy (), i); break;
+					case "move": move (from (operation, i), path, i); break;
+					case "copy": add (path, get (from (operation, i), i).deepCopy (), i); break;
+					case "test": test (path, required (operation, i, "value"), i); break;
+					default: throw failure ("Unknown patch operation", i, operation);
+				}
+			}
+			return root;
+		}
+
+		private void add (Accessor path, JsonNode value, int index) {
+			if ( path.depth () == 0 ) { root = value; return; }
+
+			JsonNode parent = parent (path, index);
+			int last = path.depth () - 1;
+
+			if ( parent.isObject () ) {
+				((ObjectNode) parent).set (path.name (last), value);
+			} else if ( "-".equals (path.name (last)) ) {
+				((ArrayNode) parent).add (value);
+			} else {
+				int position = path.index (last);
+				if ( position < 0 || position > parent.size () ) { throw failure ("Can not add beyond the end of an array", index, path); }
+				((ArrayNode) parent).insert (position, value);
+			}
+		}
+
+		private void replace (Accessor path, JsonNode value, int index) {
+			if ( path.depth () == 0 ) { root = value; return; }
+
+			JsonNode parent = parent (path, index);
+			int last = path.depth () - 1;
+
+			if ( parent.isObject () && parent.has (path.name (last)) ) {
+				((ObjectNode) parent).set (path.name (last), value);
+			} else if ( parent.isArray () && path.index (last) >= 0 && path.index (last) < parent.size () ) {
+				((ArrayNode) parent).set (path.index (last), value);
+			} else {
+				throw failure ("Can not replace a value that does not exist", index, path);
+			}
+		}
+
+		private JsonNode remove (Accessor path, int index) {
+			if ( path.depth () == 0 ) { throw failure ("Can not remove the root of a document", index, path); }
+
+			JsonNode parent = parent (path, index);
+			int last = path.depth () - 1;
+
+			JsonNode removed = parent.isObject ()
+				? ((ObjectNode) parent).remove (path.name (last))
+				: path.index (last) < 0 || path.index (last) >= parent.size ()
+					? null
+					: ((ArrayNode) parent).remove (path.index (last));
+
+			if ( removed == null ) { throw failure ("Can not remove a value that does not exist", index, path); }
+			return removed;
+		}
+
+		private void move (Accessor from, Accessor path, int index) {
+			if ( from.equals (path) ) { get (from, index); return; }
+			if ( path.expression ().startsWith (from.expression () + "/") ) {
+				throw failure ("Can not move a value into one of its children", index, path);
+			}
+			add (path, remove (from, index), index);
+		}
+
+		private void test (Accessor path, JsonNode expected, int index) {
+			if ( ! Json.deepEquals (get (path, index), expected) ) {
+				throw failure ("Found a value that differs from the tested value", index, path);
+			}
+		}
+
+		private JsonNode get (Accessor path, int index) {
+			JsonNode value = path.get (root);
+			if ( value.isMissingNode () ) { throw failure ("Can not find a value at the path", index, path); }
+			return value;
+		}
+
+		/* Walks to the parent of the last step, copying every container on the way unless patching in place. */
+		private JsonNode parent (Accessor path, int index) {
+			if ( ! inPlace ) { root = own (root); }
+
+			JsonNode current = root;
+			for ( int step = 0; step < path.depth () - 1; step++ ) {
+				JsonNode next;
+				if ( current.isObject () ) { next = current.get (path.name (step)); }
+				else if ( current.isArray () && path.index (step) >= 0 ) { next = current.get (path.index (step)); }
+				else { next = null; }
+
+				if ( next == null ) { throw failure ("Can not find a value at the path", index, path); }
+				if ( ! inPlace && ! owned.contains (next) ) {
+					next = own (next);
+					if ( current.isObject () ) { ((ObjectNode) current).set (path.name (step), next); }
+					else { ((ArrayNode) current).set (path.index (step), next); }
+				}
+				current = next;
+			}
+
+			if ( ! current.isContainerNode () ) { throw failure ("Can only change values in objects and arrays", index, path); }
+			return current;
+		}
+
+		private JsonNode own (JsonNode node) {
+			if ( owned.contains (node) ) { return node; }
+
+			JsonNode copy;
+			if ( node.isObject () ) { copy = ((ObjectNode) node).objectNode ().setAll ((ObjectNode) node); }
+			else if ( node.isArray () ) { copy = ((ArrayNode) node).arrayNode ().addAll ((ArrayNode) node); }
+			else { return node; }
+
+			owned.add (copy);
+			return copy;
+		}
+
+		private static Accessor from (JsonNode operation, int index) {
+			return pointer (operation, index, "from");
+		}
+
+		private static Accessor pointer (JsonNode operation, int index, String field) {
+			String pointer = required (operation, index, field).asText ();
+			if ( ! pointer.isEmpty () && pointer.charAt (0) != '/' ) {
+				throw failure ("Found a path that is not a json pointer", index, pointer);
+			}
+			return Accessor.compile (pointer);
+		}
+
+		private static JsonNode required (JsonNode operation, int index, String field) {
+			JsonNode value = operation.get (field);
+			if ( value == null ) {
+				throw new JsonException ("Found a patch operation without a required field", Json.objectNode (
+					"index", index,
+					"field", field,
+					"operation", operation
+				));
+			}
+			return value;
+		}
+
+		private static JsonException failure (String message, int index, Object path) {
+			return new JsonException (message, Json.objectNode (
+				"index", index,
+				"path", path.toString ()
+			));
+		}
+	}
+
+}
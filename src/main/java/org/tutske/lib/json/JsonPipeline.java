@@ -0,0 +1,130 @@
+package org.tutske.lib.json;
+
+import static org.tutske.lib.json.Json.objectNode;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+
+public class JsonPipeline {
+
+	/* Stages return null for filtered elements, any node, including a missing node, is a value. */
+	private final ArrayNode source;
+	private final Function<JsonNode, JsonNode> stage;
+
+	JsonPipeline (ArrayNode source) {
+		this (source, Function.identity ());
+	}
+
+	private JsonPipeline (ArrayNode source, Function<JsonNode, JsonNode> stage) {
+		this.source = source;
+		this.stage = stage;
+	}
+
+	public JsonPipeline filter (Predicate<JsonNode> fn) {
+		Function<JsonNode, JsonNode> previous = stage;
+		return new JsonPipeline (source, node -> {
+			JsonNode value = previous.apply (node);
+			return value != null && fn.test (value) ? value : null;
+		});
+	}
+
+	public JsonPipeline filterObjects (Predicate<ObjectNode> fn) {
+		return filter (el -> {
+			if ( el.isObject () ) { return fn.test ((ObjectNode) el); }
+			throw new JsonException ("Filtering objects encountered a non object node",
+				objectNode (
+					"type", el.getNodeType (),
+					"element", el,
+					"json", source
+				)
+			);
+		});
+	}
+
+	public JsonPipeline map (Function<JsonNode, JsonNode> fn) {
+		Function<JsonNode, JsonNode> previous = stage;
+		return new JsonPipeline (source, node -> {
+			JsonNode value = previous.apply (node);
+			return value == null ? null : Json.valueOf (fn.apply (value));
+		});
+	}
+
+	public JsonPipeline mapObjects (Function<ObjectNode, JsonNode> fn) {
+		return map (el -> {
+			if ( el.isObject () ) { return fn.apply ((ObjectNode) el); }
+			throw new JsonException ("Mapping objects encountered a non object node",
+				objectNode (
+					"type", el.getNodeType (),
+					"element", el,
+					"json", source
+				)
+			);
+		});
+	}
+
+	public JsonNode find (Predicate<JsonNode> fn) {
+		return filter (fn).findFirst ();
+	}
+
+	public JsonNode findFirst () {
+		int size = source.size ();
+		for ( int i = 0; i < size; i++ ) {
+			JsonNode value = stage.apply (source.get (i));
+			if ( value != null ) { return value; }
+		}
+		return MissingNode.getInstance ();
+	}
+
+	public boolean anyMatch (Predicate<JsonNode> fn) {
+		int size = source.size ();
+		for ( int i = 0; i < size; i++ ) {
+			JsonNode value = stage.apply (source.get (i));
+			if ( value != null && fn.test (value) ) { return true; }
+		}
+		return false;
+	}
+
+	public boolean allMatch (Predicate<JsonNode> fn) {
+		return ! anyMatch (fn.negate ());
+	}
+
+	public boolean noneMatch (Predicate<JsonNode> fn) {
+		return ! anyMatch (fn);
+	}
+
+	public long count () {
+		return reduce (0L, (acc, curr) -> acc + 1);
+	}
+
+	public <T> T reduce (T initial, BiFunction<T, JsonNode, T> fn) {
+		T result = initial;
+		int size = source.size ();
+		for ( int i = 0; i < size; i++ ) {
+			JsonNode value = stage.apply (source.get (i));
+			if ( value != null ) { result = fn.apply (result, value); }
+		}
+		return result;
+	}
+
+	public <T> List<T> toList (Function<JsonNode, T> fn) {
+		return reduce (new ArrayList<> (), (acc, curr) -> {
+			acc.add (fn.apply (curr));
+			return acc;
+		});
+	}
+
+	public ArrayNode collect () {
+		return reduce (JsonNodeFactory.instance.arrayNode (), ArrayNode::add);
+	}
+
+}
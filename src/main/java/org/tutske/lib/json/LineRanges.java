@@ -0,0 +1,60 @@
+package org.tutske.lib.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+
+class LineRanges {
+
+	static final long MIN_RANGE = 1 << 20;
+	static final long MAX_RANGE = 1 << 28;
+	private static final int SCAN_BUFFER = 8192;
+
+	static List<ByteBuffer> map (Path path) throws IOException {
+		return map (path, Runtime.getRuntime ().availableProcessors () * 4, MIN_RANGE, MAX_RANGE);
+	}
+
+	static List<ByteBuffer> map (Path path, int parts, long minRange, long maxRange) throws IOException {
+		try ( FileChannel channel = FileChannel.open (path, StandardOpenOption.READ) ) {
+			long size = channel.size ();
+			long target = Math.min (maxRange, Math.max (minRange, (size + parts - 1) / parts));
+
+			List<ByteBuffer> ranges = new ArrayList<> ();
+			long start = 0;
+			while ( start < size ) {
+				long end = start + target >= size ? size : lineEnd (channel, start + target - 1, size);
+				if ( end - start > Integer.MAX_VALUE ) {
+					throw new JsonException ("Found a line that is too long to parse in parallel", Json.objectNode (
+						"path", path.toString (),
+						"start", start,
+						"end", end
+					));
+				}
+				ranges.add (channel.map (FileChannel.MapMode.READ_ONLY, start, end - start));
+				start = end;
+			}
+			return ranges;
+		}
+	}
+
+	private static long lineEnd (FileChannel channel, long from, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate (SCAN_BUFFER);
+		long position = from;
+		while ( position < size ) {
+			buffer.clear ();
+			int read = channel.read (buffer, position);
+			if ( read < 0 ) { break; }
+			for ( int i = 0; i < read; i++ ) {
+				if ( buffer.get (i) == '\n' ) { return position + i + 1; }
+			}
+			position += read;
+		}
+		return size;
+	}
+
+}
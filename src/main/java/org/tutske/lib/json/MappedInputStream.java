@@ -0,0 +1,84 @@
+package org.tutske.lib.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+class MappedInputStream extends InputStream {
+
+	static final int DEFAULT_WINDOW = 1 << 30;
+
+	static MappedInputStream open (Path path) throws IOException {
+		FileChannel channel = FileChannel.open (path, StandardOpenOption.READ);
+		try { return new MappedInputStream (channel, DEFAULT_WINDOW); }
+		catch ( IOException | RuntimeException e ) {
+			channel.close ();
+			throw e;
+		}
+	}
+
+	private final FileChannel channel;
+	private final long size;
+	private final int windowSize;
+	private long offset;
+	private MappedByteBuffer window;
+
+	MappedInputStream (FileChannel channel, int windowSize) throws IOException {
+		this.channel = channel;
+		this.size = channel.size ();
+		this.windowSize = windowSize;
+	}
+
+	@Override public int read () throws IOException {
+		if ( ! advance () ) { return -1; }
+		return window.get () & 0xFF;
+	}
+
+	@Override public int read (byte [] buffer, int off, int len) throws IOException {
+		if ( len == 0 ) { return 0; }
+		if ( ! advance () ) { return -1; }
+
+		int count = Math.min (len, window.remaining ());
+		window.get (buffer, off, count);
+		return count;
+	}
+
+	@Override public long skip (long n) throws IOException {
+		if ( n <= 0 ) { return 0; }
+
+		long position = window == null ? offset : offset - window.remaining ();
+		long skipped = Math.min (n, size - position);
+		if ( window != null && skipped <= window.remaining () ) {
+			window.position (window.position () + (int) skipped);
+		} else {
+			offset = position + skipped;
+			window = null;
+		}
+		return skipped;
+	}
+
+	@Override public int available () {
+		if ( window != null && window.hasRemaining () ) { return window.remaining (); }
+		return (int) Math.min (Integer.MAX_VALUE, size - offset);
+	}
+
+	@Override public void close () throws IOException {
+		window = null;
+		channel.close ();
+	}
+
+	private boolean advance () throws IOException {
+		if ( window != null && window.hasRemaining () ) { return true; }
+		if ( offset >= size ) { return false; }
+
+		long length = Math.min (windowSize, size - offset);
+		window = channel.map (FileChannel.MapMode.READ_ONLY, offset, length);
+		offset += length;
+		return true;
+	}
+
+}
@@ -2,18 +2,28 @@ package org.tutske.lib.json;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.function.Consumer;
 
 
@@ -21,6 +31,11 @@ public class Mappers {
 
 	static final ObjectMapper instance = mapper ();
 
+	private static final Map<ObjectMapper, SoftReference<Codecs>> codecs = Collections.synchronizedMap (
+		new WeakHashMap<> ()
+	);
+	private static volatile Codecs defaults;
+
 	public static ObjectMapper mapper () {
 		return new ObjectMapper ()
 			.disable (SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
@@ -33,6 +48,18 @@ public class Mappers {
 		;
 	}
 
+	public static ObjectMapper compactMapper () {
+		return mapper ().setNodeFactory (CompactNodeFactory.instance);
+	}
+
+	public static ObjectMapper canonicalFieldNames (ObjectMapper mapper) {
+		return canonicalFieldNames (mapper, SymbolTable.shared ());
+	}
+
+	public static ObjectMapper canonicalFieldNames (ObjectMapper mapper, SymbolTable symbols) {
+		return mapper.setNodeFactory (CanonicalNodeFactory.wrap (mapper.getNodeFactory (), symbols));
+	}
+
 	public static ObjectMapper mapper (Module ... modules) {
 		return configure (mapper (), modules);
 	}
@@ -61,6 +88,34 @@ public class Mappers {
 		return mapper;
 	}
 
+	public static ObjectWriter writer (ObjectMapper mapper) {
+		return codecs (mapper).writer;
+	}
+
+	public static ObjectWriter prettyWriter (ObjectMapper mapper) {
+		return codecs (mapper).prettyWriter;
+	}
+
+	public static ObjectReader reader (ObjectMapper mapper) {
+		return codecs (mapper).reader;
+	}
+
+	private static Codecs codecs (ObjectMapper mapper) {
+		if ( mapper == instance ) {
+			Codecs current = defaults;
+			if ( current == null || current.isStale (mapper) ) { defaults = current = new Codecs (mapper); }
+			return current;
+		}
+
+		SoftReference<Codecs> ref = codecs.get (mapper);
+		Codecs current = ref == null ? null : ref.get ();
+		if ( current == null || current.isStale (mapper) ) {
+			current = new Codecs (mapper);
+			codecs.put (mapper, new SoftReference<> (current));
+		}
+		return current;
+	}
+
 	public static <T> void serialize (SimpleModule module, Class<T> clazz, SerializerFn<T> serializer) {
 		module.addSerializer (clazz, new StdSerializer<T> (clazz) {
 			@Override public void serialize (T value, JsonGenerator gen, SerializerProvider provider)
@@ -79,6 +134,40 @@ public class Mappers {
 		});
 	}
 
+	private static class Codecs {
+		private final SerializationConfig serializationConfig;
+		private final SerializerFactory serializerFactory;
+		private final SerializerProvider serializerProvider;
+		private final DeserializationConfig deserializationConfig;
+		private final DeserializationContext deserializationContext;
+
+		private final ObjectWriter writer;
+		private final ObjectWriter prettyWriter;
+		private final ObjectReader reader;
+
+		Codecs (ObjectMapper mapper) {
+			this.serializationConfig = mapper.getSerializationConfig ();
+			this.serializerFactory = mapper.getSerializerFactory ();
+			this.serializerProvider = mapper.getSerializerProvider ();
+			this.deserializationConfig = mapper.getDeserializationConfig ();
+			this.deserializationContext = mapper.getDeserializationContext ();
+
+			this.writer = mapper.writer ();
+			this.prettyWriter = mapper.writerWithDefaultPrettyPrinter ();
+			this.reader = mapper.readerFor (JsonNode.class);
+		}
+
+		boolean isStale (ObjectMapper mapper) {
+			return (
+				serializationConfig != mapper.getSerializationConfig () ||
+				serializerFactory != mapper.getSerializerFactory () ||
+				serializerProvider != mapper.getSerializerProvider () ||
+				deserializationConfig != mapper.getDeserializationConfig () ||
+				deserializationContext != mapper.getDeserializationContext ()
+			);
+		}
+	}
+
 	@FunctionalInterface
 	public static interface SerializerFn<T> {
 		public void serialize (T value, JsonGenerator gen, SerializerProvider provider) throws IOException;
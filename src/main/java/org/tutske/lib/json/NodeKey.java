@@ -0,0 +1,42 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.util.HashSet;
+import java.util.Set;
+
+
+final class NodeKey {
+
+	static Set<NodeKey> keys (ArrayNode array) {
+		Set<NodeKey> keys = new HashSet<> (Math.max (16, array.size () * 4 / 3 + 1));
+		for ( JsonNode element : array ) { keys.add (new NodeKey (element)); }
+		return keys;
+	}
+
+	private final JsonNode node;
+	private final int hash;
+
+	NodeKey (JsonNode node) {
+		this.node = node;
+		long hash = StructuralHash.hash (node, null);
+		this.hash = (int) (hash ^ (hash >>> 32));
+	}
+
+	JsonNode node () {
+		return node;
+	}
+
+	@Override public int hashCode () {
+		return hash;
+	}
+
+	@Override public boolean equals (Object o) {
+		if ( this == o ) { return true; }
+		if ( ! (o instanceof NodeKey) ) { return false; }
+		NodeKey other = (NodeKey) o;
+		return hash == other.hash && StructuralHash.equal (node, other.node, null);
+	}
+
+}
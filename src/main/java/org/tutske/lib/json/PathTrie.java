@@ -0,0 +1,122 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+
+class PathTrie {
+
+	static PathTrie of (Accessor ... accessors) {
+		PathTrie root = new PathTrie ();
+		for ( Accessor accessor : accessors ) {
+			PathTrie current = root;
+			for ( int step = 0; step < accessor.depth () && ! current.terminal; step++ ) {
+				current = current.child (accessor.name (step), accessor.index (step));
+			}
+			current.terminal = true;
+		}
+		return root;
+	}
+
+	private final Map<String, PathTrie> fields = new HashMap<> ();
+	private final Map<Integer, PathTrie> indices = new HashMap<> ();
+	private boolean terminal;
+
+	boolean terminal () {
+		return terminal;
+	}
+
+	PathTrie field (String name) {
+		return fields.get (name);
+	}
+
+	PathTrie index (int index) {
+		return indices.get (index);
+	}
+
+	JsonNode keep (JsonNode node) {
+		if ( terminal ) { return node; }
+
+		if ( node.isObject () ) {
+			ObjectNode result = null;
+			Iterator<Map.Entry<String, JsonNode>> it = node.fields ();
+			while ( it.hasNext () ) {
+				Map.Entry<String, JsonNode> field = it.next ();
+				PathTrie child = fields.get (field.getKey ());
+				JsonNode kept = child == null ? null : child.keep (field.getValue ());
+				if ( kept == null ) { continue; }
+				if ( result == null ) { result = ((ObjectNode) node).objectNode (); }
+				result.set (field.getKey (), kept);
+			}
+			return result;
+		}
+
+		if ( node.isArray () ) {
+			ArrayNode result = null;
+			for ( int i = 0; i < node.size (); i++ ) {
+				PathTrie child = indices.get (i);
+				JsonNode kept = child == null ? null : child.keep (node.get (i));
+				if ( kept == null ) { continue; }
+				if ( result == null ) { result = ((ArrayNode) node).arrayNode (); }
+				result.add (kept);
+			}
+			return result;
+		}
+
+		return null;
+	}
+
+	JsonNode purge (JsonNode node) {
+		if ( terminal ) { return null; }
+
+		if ( node.isObject () ) {
+			ObjectNode result = ((ObjectNode) node).objectNode ();
+			Iterator<Map.Entry<String, JsonNode>> it = node.fields ();
+			while ( it.hasNext () ) {
+				Map.Entry<String, JsonNode> field = it.next ();
+				PathTrie child = fields.get (field.getKey ());
+				JsonNode purged = child == null ? field.getValue () : child.purge (field.getValue ());
+				if ( purged != null ) { result.set (field.getKey (), purged); }
+			}
+			return result;
+		}
+
+		if ( node.isArray () ) {
+			ArrayNode result = ((ArrayNode) node).arrayNode ();
+			for ( int i = 0; i < node.size (); i++ ) {
+				PathTrie child = indices.get (i);
+				JsonNode purged = child == null ? node.get (i) : child.purge (node.get (i));
+				if ( purged != null ) { result.add (purged); }
+			}
+			return result;
+		}
+
+		return node;
+	}
+
+	private PathTrie child (String name, int index) {
+		PathTrie byName = name == null ? null : fields.get (name);
+		PathTrie byIndex = index < 0 ? null : indices.get (index);
+
+		PathTrie child = byName == null ? byIndex : byIndex == null ? byName : merge (byName, byIndex);
+		if ( child == null ) { child = new PathTrie (); }
+
+		if ( name != null ) { fields.put (name, child); }
+		if ( index >= 0 ) { indices.put (index, child); }
+		return child;
+	}
+
+	private static PathTrie merge (PathTrie into, PathTrie from) {
+		if ( into == from ) { return into; }
+		into.terminal |= from.terminal;
+		from.fields.forEach ((key, value) -> into.fields.merge (key, value, PathTrie::merge));
+		from.indices.forEach ((key, value) -> into.indices.merge (key, value, PathTrie::merge));
+		return into;
+	}
+
+}
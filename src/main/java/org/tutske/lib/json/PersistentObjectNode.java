@@ -0,0 +1,412 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/* ObjectNode narrows the generic JsonNode.deepCopy, which every subclass inherits unchecked. */
+@SuppressWarnings ("unchecked")
+public class PersistentObjectNode extends ObjectNode {
+
+	public static PersistentObjectNode of (ObjectNode source) {
+		if ( source instanceof PersistentObjectNode ) { return (PersistentObjectNode) source; }
+
+		Fields fields = Fields.EMPTY;
+		Iterator<Map.Entry<String, JsonNode>> it = source.fields ();
+		while ( it.hasNext () ) {
+			Map.Entry<String, JsonNode> field = it.next ();
+			fields = fields.assoc (field.getKey (), field.getValue ());
+		}
+
+		return new PersistentObjectNode (JsonNodeFactory.instance, fields);
+	}
+
+	public PersistentObjectNode () {
+		this (JsonNodeFactory.instance);
+	}
+
+	public PersistentObjectNode (JsonNodeFactory factory) {
+		this (factory, Fields.EMPTY);
+	}
+
+	private PersistentObjectNode (JsonNodeFactory factory, Fields fields) {
+		super (factory, fields);
+	}
+
+	public PersistentObjectNode assign (String key, JsonNode value) {
+		return version (trie ().assoc (key, value));
+	}
+
+	public PersistentObjectNode keep (String ... keys) {
+		Fields source = trie ();
+		Fields result = Fields.EMPTY;
+		for ( String key : keys ) {
+			JsonNode value = source.get (key);
+			if ( value != null ) { result = result.assoc (key, value); }
+		}
+		return version (result);
+	}
+
+	public PersistentObjectNode purge (String ... keys) {
+		Fields result = trie ();
+		for ( String key : keys ) { result = result.dissoc (key); }
+		return version (result);
+	}
+
+	public PersistentObjectNode merge (ObjectNode ... sources) {
+		Fields result = trie ();
+		for ( ObjectNode source : sources ) {
+			if ( source == null || source.isNull () || source.isMissingNode () ) { continue; }
+			Iterator<Map.Entry<String, JsonNode>> it = source.fields ();
+			while ( it.hasNext () ) {
+				Map.Entry<String, JsonNode> field = it.next ();
+				result = result.assoc (field.getKey (), field.getValue ());
+			}
+		}
+		return version (result);
+	}
+
+	public PersistentObjectNode mergeAbsent (ObjectNode ... sources) {
+		Fields result = trie ();
+		for ( ObjectNode source : sources ) {
+			if ( source == null || source.isNull () || source.isMissingNode () ) { continue; }
+			Iterator<Map.Entry<String, JsonNode>> it = source.fields ();
+			while ( it.hasNext () ) {
+				Map.Entry<String, JsonNode> field = it.next ();
+				if ( result.get (field.getKey ()) == null ) {
+					result = result.assoc (field.getKey (), field.getValue ());
+				}
+			}
+		}
+		return version (result);
+	}
+
+	private Fields trie () {
+		return (Fields) _children;
+	}
+
+	private PersistentObjectNode version (Fields fields) {
+		return new PersistentObjectNode (_nodeFactory, fields);
+	}
+
+	/*
+	 * The fields are kept in a hash array mapped trie. Trie nodes are never modified after
+	 * they are created, every change copies the path from the root to the changed entry and
+	 * shares everything else with the previous version. The Fields map is immutable as well,
+	 * the regular ObjectNode methods that would change it throw instead.
+	 */
+	private static final class Fields extends AbstractMap<String, JsonNode> {
+		static final Fields EMPTY = new Fields (BitmapNode.EMPTY, 0);
+
+		private final TrieNode root;
+		private final int size;
+
+		Fields (TrieNode root, int size) {
+			this.root = root;
+			this.size = size;
+		}
+
+		Fields assoc (String key, JsonNode value) {
+			if ( value == null ) { value = NullNode.getInstance (); }
+			boolean [] added = { false };
+			TrieNode updated = root.assoc (0, hash (key), key, value, added);
+			return updated == root ? this : new Fields (updated, added[0] ? size + 1 : size);
+		}
+
+		Fields dissoc (String key) {
+			TrieNode updated = root.dissoc (0, hash (key), key);
+			if ( updated == root ) { return this; }
+			return new Fields (updated == null ? BitmapNode.EMPTY : updated, size - 1);
+		}
+
+		@Override public JsonNode get (Object key) {
+			if ( ! (key instanceof String) ) { return null; }
+			return root.find (0, hash ((String) key), (String) key);
+		}
+
+		@Override public boolean containsKey (Object key) {
+			return get (key) != null;
+		}
+
+		@Override public JsonNode put (String key, JsonNode value) {
+			throw immutable (key);
+		}
+
+		@Override public JsonNode remove (Object key) {
+			throw immutable (key);
+		}
+
+		@Override public void clear () {
+			throw immutable (null);
+		}
+
+		@Override public int size () {
+			return size;
+		}
+
+		@Override public Set<Map.Entry<String, JsonNode>> entrySet () {
+			return new AbstractSet<Map.Entry<String, JsonNode>> () {
+				@Override public Iterator<Map.Entry<String, JsonNode>> iterator () {
+					return new EntryIterator (Fields.this, root);
+				}
+
+				@Override public int size () {
+					return size;
+				}
+			};
+		}
+
+		private static JsonException immutable (Object key) {
+			return new JsonException ("Can not change a persistent object node, derive a new version instead",
+				Json.objectNode ("key", key == null ? null : key.toString ())
+			);
+		}
+
+		private static int hash (String key) {
+			int h = key.hashCode ();
+			return h ^ (h >>> 16);
+		}
+	}
+
+	private static abstract class TrieNode {
+		static final int BITS = 5;
+		static final int MASK = (1 << BITS) - 1;
+
+		/* entries are stored as pairs, a key and a value or a null key and a child node */
+		final Object [] array;
+
+		TrieNode (Object [] array) {
+			this.array = array;
+		}
+
+		abstract JsonNode find (int shift, int hash, String key);
+		abstract TrieNode assoc (int shift, int hash, String key, JsonNode value, boolean [] added);
+		abstract TrieNode dissoc (int shift, int hash, String key);
+	}
+
+	private static final class BitmapNode extends TrieNode {
+		static final BitmapNode EMPTY = new BitmapNode (0, new Object [0]);
+
+		private final int bitmap;
+
+		BitmapNode (int bitmap, Object [] array) {
+			super (array);
+			this.bitmap = bitmap;
+		}
+
+		@Override JsonNode find (int shift, int hash, String key) {
+			int bit = bit (shift, hash);
+			if ( (bitmap & bit) == 0 ) { return null; }
+
+			int i = 2 * index (bit);
+			Object k = array[i];
+			Object v = array[i + 1];
+
+			if ( k == null ) { return ((TrieNode) v).find (shift + BITS, hash, key); }
+			return key.equals (k) ? (JsonNode) v : null;
+		}
+
+		@Override TrieNode assoc (int shift, int hash, String key, JsonNode value, boolean [] added) {
+			int bit = bit (shift, hash);
+			int i = 2 * index (bit);
+
+			if ( (bitmap & bit) == 0 ) {
+				Object [] updated = new Object [array.length + 2];
+				System.arraycopy (array, 0, updated, 0, i);
+				updated[i] = key;
+				updated[i + 1] = value;
+				System.arraycopy (array, i, updated, i + 2, array.length - i);
+				added[0] = true;
+				return new BitmapNode (bitmap | bit, updated);
+			}
+
+			Object k = array[i];
+			Object v = array[i + 1];
+
+			if ( k == null ) {
+				TrieNode child = ((TrieNode) v).assoc (shift + BITS, hash, key, value, added);
+				return child == v ? this : new BitmapNode (bitmap, copy (array, i + 1, child));
+			}
+
+			if ( key.equals (k) ) {
+				return v == value ? this : new BitmapNode (bitmap, copy (array, i + 1, value));
+			}
+
+			added[0] = true;
+			TrieNode child = split (shift + BITS, (String) k, (JsonNode) v, hash, key, value);
+			Object [] updated = copy (array, i, null);
+			updated[i + 1] = child;
+			return new BitmapNode (bitmap, updated);
+		}
+
+		@Override TrieNode dissoc (int shift, int hash, String key) {
+			int bit = bit (shift, hash);
+			if ( (bitmap & bit) == 0 ) { return this; }
+
+			int i = 2 * index (bit);
+			Object k = array[i];
+			Object v = array[i + 1];
+
+			if ( k == null ) {
+				TrieNode child = ((TrieNode) v).dissoc (shift + BITS, hash, key);
+				if ( child == v ) { return this; }
+				if ( child != null ) { return new BitmapNode (bitmap, copy (array, i + 1, child)); }
+				return without (bit, i);
+			}
+
+			return key.equals (k) ? without (bit, i) : this;
+		}
+
+		private TrieNode without (int bit, int i) {
+			if ( bitmap == bit ) { return null; }
+			Object [] updated = new Object [array.length - 2];
+			System.arraycopy (array, 0, updated, 0, i);
+			System.arraycopy (array, i + 2, updated, i, array.length - i - 2);
+			return new BitmapNode (bitmap ^ bit, updated);
+		}
+
+		private int index (int bit) {
+			return Integer.bitCount (bitmap & (bit - 1));
+		}
+
+		private static int bit (int shift, int hash) {
+			return 1 << ((hash >>> shift) & MASK);
+		}
+
+		private static TrieNode split (int shift, String k1, JsonNode v1, int hash, String k2, JsonNode v2) {
+			int h1 = Fields.hash (k1);
+			if ( h1 == hash ) { return new CollisionNode (hash, new Object [] { k1, v1, k2, v2 }); }
+
+			boolean [] ignored = { false };
+			return EMPTY
+				.assoc (shift, h1, k1, v1, ignored)
+				.assoc (shift, hash, k2, v2, ignored);
+		}
+	}
+
+	private static final class CollisionNode extends TrieNode {
+		private final int hash;
+
+		CollisionNode (int hash, Object [] array) {
+			super (array);
+			this.hash = hash;
+		}
+
+		@Override JsonNode find (int shift, int hash, String key) {
+			int i = indexOf (key);
+			return i < 0 ? null : (JsonNode) array[i + 1];
+		}
+
+		@Override TrieNode assoc (int shift, int hash, String key, JsonNode value, boolean [] added) {
+			if ( hash != this.hash ) {
+				BitmapNode parent = new BitmapNode (BitmapNode.bit (shift, this.hash), new Object [] { null, this });
+				return parent.assoc (shift, hash, key, value, added);
+			}
+
+			int i = indexOf (key);
+			if ( i >= 0 ) {
+				return array[i + 1] == value ? this : new CollisionNode (hash, copy (array, i + 1, value));
+			}
+
+			Object [] updated = new Object [array.length + 2];
+			System.arraycopy (array, 0, updated, 0, array.length);
+			updated[array.length] = key;
+			updated[array.length + 1] = value;
+			added[0] = true;
+			return new CollisionNode (hash, updated);
+		}
+
+		@Override TrieNode dissoc (int shift, int hash, String key) {
+			int i = indexOf (key);
+			if ( i < 0 ) { return this; }
+			if ( array.length == 2 ) { return null; }
+
+			Object [] updated = new Object [array.length - 2];
+			System.arraycopy (array, 0, updated, 0, i);
+			System.arraycopy (array, i + 2, updated, i, array.length - i - 2);
+			return new CollisionNode (hash, updated);
+		}
+
+		private int indexOf (String key) {
+			for ( int i = 0; i < array.length; i += 2 ) {
+				if ( key.equals (array[i]) ) { return i; }
+			}
+			return -1;
+		}
+	}
+
+	private static Object [] copy (Object [] array, int i, Object value) {
+		Object [] copy = array.clone ();
+		copy[i] = value;
+		return copy;
+	}
+
+	private static final class EntryIterator implements Iterator<Map.Entry<String, JsonNode>> {
+		private final Fields fields;
+		private final Object [][] arrays = new Object [16][];
+		private final int [] positions = new int [16];
+		private int depth = 0;
+		private Map.Entry<String, JsonNode> next;
+		private String last;
+
+		EntryIterator (Fields fields, TrieNode root) {
+			this.fields = fields;
+			this.arrays[0] = root.array;
+			advance ();
+		}
+
+		@Override public boolean hasNext () {
+			return next != null;
+		}
+
+		@Override public Map.Entry<String, JsonNode> next () {
+			if ( next == null ) { throw new NoSuchElementException (); }
+			Map.Entry<String, JsonNode> current = next;
+			last = current.getKey ();
+			advance ();
+			return current;
+		}
+
+		@Override public void remove () {
+			if ( last == null ) { throw new IllegalStateException (); }
+			fields.remove (last);
+			last = null;
+		}
+
+		private void advance () {
+			next = null;
+			while ( depth >= 0 ) {
+				Object [] array = arrays[depth];
+				int position = positions[depth];
+
+				if ( position >= array.length ) {
+					depth--;
+					continue;
+				}
+
+				positions[depth] = position + 2;
+				Object key = array[position];
+				Object value = array[position + 1];
+
+				if ( key == null ) {
+					depth++;
+					arrays[depth] = ((TrieNode) value).array;
+					positions[depth] = 0;
+				} else {
+					next = new AbstractMap.SimpleImmutableEntry<> ((String) key, (JsonNode) value);
+					return;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+
+
+public class Projection {
+
+	public static Projection fields (String ... fields) {
+		Accessor [] accessors = new Accessor [fields.length];
+		for ( int i = 0; i < fields.length; i++ ) { accessors[i] = Accessor.field (fields[i]); }
+		return new Projection (accessors);
+	}
+
+	public static Projection paths (String ... expressions) {
+		Accessor [] accessors = new Accessor [expressions.length];
+		for ( int i = 0; i < expressions.length; i++ ) { accessors[i] = Accessor.of (expressions[i]); }
+		return new Projection (accessors);
+	}
+
+	public static Projection of (Accessor ... accessors) {
+		return new Projection (accessors.clone ());
+	}
+
+	private final PathTrie trie;
+
+	private Projection (Accessor [] accessors) {
+		this.trie = PathTrie.of (accessors);
+	}
+
+	JsonNode read (ObjectReader reader, JsonParser parser) throws IOException {
+		JsonToken token = parser.nextToken ();
+		if ( token == null ) { return null; }
+
+		JsonNodeFactory factory = reader.getConfig ().getNodeFactory ();
+		if ( trie.terminal () || ! token.isStructStart () ) { return reader.readTree (parser); }
+
+		JsonNode result = read (reader, factory, parser, trie);
+		if ( result != null ) { return result; }
+		return token == JsonToken.START_OBJECT ? factory.objectNode () : factory.arrayNode ();
+	}
+
+	private JsonNode read (ObjectReader reader, JsonNodeFactory factory, JsonParser parser, PathTrie trie)
+	throws IOException {
+		if ( trie.terminal () ) { return reader.readTree (parser); }
+
+		JsonToken token = parser.currentToken ();
+		if ( token == JsonToken.START_OBJECT ) {
+			ObjectNode result = null;
+			while ( parser.nextToken () == JsonToken.FIELD_NAME ) {
+				String name = parser.getCurrentName ();
+				parser.nextToken ();
+
+				PathTrie child = trie.field (name);
+				if ( child == null ) { parser.skipChildren (); continue; }
+
+				JsonNode value = read (reader, factory, parser, child);
+				if ( value == null ) { continue; }
+				if ( result == null ) { result = factory.objectNode (); }
+				result.set (name, value);
+			}
+			return result;
+		}
+
+		if ( token == JsonToken.START_ARRAY ) {
+			ArrayNode result = null;
+			for ( int index = 0; parser.nextToken () != JsonToken.END_ARRAY; index++ ) {
+				PathTrie child = trie.index (index);
+				if ( child == null ) { parser.skipChildren (); continue; }
+
+				JsonNode value = read (reader, factory, parser, child);
+				if ( value == null ) { continue; }
+				if ( result == null ) { result = factory.arrayNode (); }
+				result.add (value);
+			}
+			return result;
+		}
+
+		return null;
+	}
+
+}
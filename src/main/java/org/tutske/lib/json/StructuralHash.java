@@ -0,0 +1,128 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+
+final class StructuralHash {
+
+	private static final long OBJECT = 0x3C6EF372FE94F82BL;
+	private static final long ARRAY = 0xA54FF53A5F1D36F1L;
+	private static final long TEXT = 0x510E527FADE682D1L;
+	private static final long NUMBER = 0x9B05688C2B3E6C1FL;
+	private static final long BINARY = 0x1F83D9ABFB41BD6BL;
+	private static final long POJO = 0x5BE0CD19137E2179L;
+	private static final long OTHER = 0xCBBB9D5DC1059ED8L;
+	private static final long TRUE = 0x629A292A367CD507L;
+	private static final long FALSE = 0x9159015A3070DD17L;
+	private static final long NULL = 0x152FECD8F70E5939L;
+	private static final long MISSING = 0x67332667FFC00B31L;
+
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+	private StructuralHash () {}
+
+	static long hash (JsonNode node, HashCache cache) {
+		if ( ! node.isContainerNode () ) { return value (node); }
+		if ( cache == null ) { return container (node, null); }
+
+		long cached = cache.lookup (node);
+		if ( cached != HashCache.ABSENT ) { return cached; }
+
+		long hash = container (node, cache);
+		cache.store (node, hash);
+		return hash;
+	}
+
+	static boolean equal (JsonNode left, JsonNode right, HashCache cache) {
+		if ( left == right ) { return true; }
+		if ( left == null || right == null ) { return false; }
+		if ( ! left.isContainerNode () || ! right.isContainerNode () ) { return left.equals (right); }
+		if ( left.getNodeType () != right.getNodeType () || left.size () != right.size () ) { return false; }
+		if ( cache != null && hash (left, cache) != hash (right, cache) ) { return false; }
+
+		if ( left.isArray () ) {
+			for ( int i = 0; i < left.size (); i++ ) {
+				if ( ! equal (left.get (i), right.get (i), cache) ) { return false; }
+			}
+			return true;
+		}
+
+		Iterator<Map.Entry<String, JsonNode>> it = left.fields ();
+		while ( it.hasNext () ) {
+			Map.Entry<String, JsonNode> field = it.next ();
+			if ( ! equal (field.getValue (), right.get (field.getKey ()), cache) ) { return false; }
+		}
+		return true;
+	}
+
+	private static long container (JsonNode node, HashCache cache) {
+		if ( node.isArray () ) {
+			long hash = ARRAY;
+			for ( int i = 0; i < node.size (); i++ ) { hash = hash * GOLDEN + hash (node.get (i), cache); }
+			return mix (hash ^ node.size ());
+		}
+
+		/* Object fields are unordered, so the field hashes are summed rather than chained. */
+		long hash = OBJECT;
+		Iterator<Map.Entry<String, JsonNode>> it = node.fields ();
+		while ( it.hasNext () ) {
+			Map.Entry<String, JsonNode> field = it.next ();
+			hash += mix (text (field.getKey ()) * GOLDEN + hash (field.getValue (), cache));
+		}
+		return mix (hash ^ node.size ());
+	}
+
+	private static long value (JsonNode node) {
+		switch ( node.getNodeType () ) {
+			case STRING: return mix (TEXT ^ text (node.textValue ()));
+			case BOOLEAN: return node.booleanValue () ? TRUE : FALSE;
+			case NULL: return NULL;
+			case MISSING: return MISSING;
+			case NUMBER: return mix (NUMBER + number (node));
+			case BINARY: return mix (BINARY ^ Arrays.hashCode (binary (node)));
+			case POJO: return mix (POJO ^ Objects.hashCode (pojo (node)));
+			default: return mix (OTHER ^ node.hashCode ());
+		}
+	}
+
+	private static long number (JsonNode node) {
+		switch ( node.numberType () ) {
+			case INT: return node.intValue ();
+			case LONG: return node.longValue () * GOLDEN;
+			case FLOAT: return Float.floatToIntBits (node.floatValue ()) + 1L;
+			case DOUBLE: return Double.doubleToLongBits (node.doubleValue ()) + 2L;
+			case BIG_INTEGER: return node.bigIntegerValue ().hashCode () + 3L;
+			default: return node.decimalValue ().stripTrailingZeros ().hashCode () + 4L;
+		}
+	}
+
+	private static long text (String text) {
+		return ((long) text.hashCode () << 32) ^ text.length ();
+	}
+
+	private static byte [] binary (JsonNode node) {
+		try { return node.binaryValue (); }
+		catch ( IOException e ) { throw new RuntimeException (e); }
+	}
+
+	private static Object pojo (JsonNode node) {
+		return ((POJONode) node).getPojo ();
+	}
+
+	private static long mix (long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+}
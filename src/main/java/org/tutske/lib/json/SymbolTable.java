@@ -0,0 +1,48 @@
+package org.tutske.lib.json;
+
+
+public class SymbolTable {
+
+	private static final SymbolTable shared = new SymbolTable (4096, 64);
+
+	public static SymbolTable shared () {
+		return shared;
+	}
+
+	private final String [] symbols;
+	private final int maxLength;
+
+	public SymbolTable (int capacity) {
+		this (capacity, 64);
+	}
+
+	public SymbolTable (int capacity, int maxLength) {
+		if ( capacity <= 0 || maxLength < 0 ) {
+			throw new JsonException ("Symbol tables need a positive capacity", Json.objectNode (
+				"capacity", capacity,
+				"maxLength", maxLength
+			));
+		}
+		this.symbols = new String [capacity == 1 ? 1 : Integer.highestOneBit (capacity - 1) << 1];
+		this.maxLength = maxLength;
+	}
+
+	public String canonical (String symbol) {
+		if ( symbol == null || symbol.length () > maxLength ) { return symbol; }
+
+		int hash = symbol.hashCode ();
+		int slot = (hash ^ (hash >>> 16)) & (symbols.length - 1);
+
+		String known = symbols[slot];
+		if ( known == symbol ) { return known; }
+		if ( known != null && known.equals (symbol) ) { return known; }
+
+		symbols[slot] = symbol;
+		return symbol;
+	}
+
+	public int capacity () {
+		return symbols.length;
+	}
+
+}
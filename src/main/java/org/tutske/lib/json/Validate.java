@@ -3,19 +3,69 @@ package org.tutske.lib.json;
 import static org.tutske.lib.json.Json.*;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import java.util.BitSet;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
 
 public class Validate {
 
+	private static final int DEFAULT_MAX_ERRORS = 100;
+	private static volatile boolean stackTraces = true;
+
+	public static void stackTraces (boolean enabled) {
+		stackTraces = enabled;
+	}
+
+	public static Validator compile (Consumer<Validator.Schema> config) {
+		Validator.Schema schema = new Validator.Schema ();
+		config.accept (schema);
+		return schema.compile ();
+	}
+
+	public static ValidationReport validateAll (ArrayNode array, Validator validator) {
+		return validateAll (ForkJoinPool.commonPool (), array, validator, DEFAULT_MAX_ERRORS);
+	}
+
+	public static ValidationReport validateAll (ArrayNode array, Validator validator, int maxErrors) {
+		return validateAll (ForkJoinPool.commonPool (), array, validator, maxErrors);
+	}
+
+	public static ValidationReport validateAll (ForkJoinPool pool, ArrayNode array, Validator validator) {
+		return validateAll (pool, array, validator, DEFAULT_MAX_ERRORS);
+	}
+
+	public static ValidationReport validateAll (
+		ForkJoinPool pool, ArrayNode array, Validator validator, int maxErrors
+	) {
+		BitSet failures = pool.submit (() -> IntStream.range (0, array.size ()).parallel ()
+			.filter (i -> ! validator.test (array.get (i)))
+			.collect (BitSet::new, BitSet::set, BitSet::or)
+		).join ();
+
+		SortedMap<Integer, JsonException> errors = new TreeMap<> ();
+		for ( int i = failures.nextSetBit (0); i >= 0 && errors.size () < maxErrors; i = failures.nextSetBit (i + 1) ) {
+			errors.put (i, validator.check (array.get (i)));
+		}
+
+		return new ValidationReport (array.size (), failures, errors);
+	}
+
 	public static void assureNonNulls (JsonNode ... nodes) {
 		for ( JsonNode node : nodes ) { assureNonNull (node); }
 	}
 
 	public static void assureNonNull (JsonNode node) {
-		if ( node == null || node.isNull ()) throw new JsonException (
+		if ( node == null || node.isNull ()) throw failure (
 			"Required non null json element",
-			objectNode (
+			() -> objectNode (
 				"original", node,
 				"jsonNull", node != null && node.isNull ()
 			)
@@ -28,9 +78,9 @@ public class Validate {
 
 	public static void assureArray (JsonNode node) {
 		assureNonNull (node);
-		if ( ! node.isArray () ) throw new JsonException (
+		if ( ! node.isArray () ) throw failure (
 			"Required an array, but got something else.",
-			objectNode ("original", node)
+			() -> objectNode ("original", node)
 		);
 	}
 
@@ -40,9 +90,9 @@ public class Validate {
 
 	public static void assureObject (JsonNode node) {
 		assureNonNull (node);
-		if ( ! node.isObject () ) throw new JsonException (
+		if ( ! node.isObject () ) throw failure (
 			"Required an object, but got something else.",
-			objectNode ("original", node)
+			() -> objectNode ("original", node)
 		);
 	}
 
@@ -52,9 +102,9 @@ public class Validate {
 
 	public static void assurePrimitiveValue (JsonNode node) {
 		assureNonNull (node);
-		if ( node.isContainerNode () ) throw new JsonException (
+		if ( node.isContainerNode () ) throw failure (
 			"Required a json primitive, but got something else.",
-			objectNode ("original", node)
+			() -> objectNode ("original", node)
 		);
 	}
 
@@ -65,9 +115,9 @@ public class Validate {
 
 	public static void assureFields (ObjectNode obj, String ... fields) {
 		for ( String field : fields ) {
-			if ( ! obj.has (field) || obj.get (field).isNull () ) throw new JsonException (
+			if ( ! obj.has (field) || obj.get (field).isNull () ) throw failure (
 				"Found a field that is missing.",
-				objectNode (
+				() -> objectNode (
 					"original", obj,
 					"fields", fields,
 					"field", field
@@ -83,9 +133,9 @@ public class Validate {
 
 	public static void assureAbsence (ObjectNode obj, String ... fields) {
 		for ( String field : fields ) {
-			if ( obj.has (field) ) throw new JsonException (
+			if ( obj.has (field) ) throw failure (
 				"Found a field that should have been absent",
-				objectNode (
+				() -> objectNode (
 					"original", obj,
 					"fields", fields,
 					"field", field
@@ -102,9 +152,9 @@ public class Validate {
 	public static void assurePrimitiveFields (ObjectNode obj, String ... fields) {
 		assureFields (obj, fields);
 		for ( String field : fields ) {
-			if ( obj.get (field).isContainerNode () ) throw new JsonException (
+			if ( obj.get (field).isContainerNode () ) throw failure (
 				"Found a fields that should have been a json primitive.",
-				objectNode (
+				() -> objectNode (
 					"original", obj,
 					"fields", fields,
 					"field", field,
@@ -124,9 +174,9 @@ public class Validate {
 		for ( String field : fields ) {
 			JsonNode node = obj.path (field);
 			String value = node.asText ();
-			if ( ! node.isTextual () || value.isEmpty () ) throw new JsonException (
+			if ( ! node.isTextual () || value.isEmpty () ) throw failure (
 				"Found a field that should have been a non empty string.",
-				objectNode (
+				() -> objectNode (
 					"original", obj,
 					"fields", fields,
 					"field", field,
@@ -136,4 +186,8 @@ public class Validate {
 		}
 	}
 
+	private static JsonException failure (String message, Supplier<ObjectNode> data) {
+		return stackTraces ? new JsonException (message, data) : new JsonException (message, data, false);
+	}
+
 }
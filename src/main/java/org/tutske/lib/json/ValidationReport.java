@@ -0,0 +1,44 @@
+package org.tutske.lib.json;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.SortedMap;
+
+
+public class ValidationReport {
+
+	private final int size;
+	private final BitSet failures;
+	private final SortedMap<Integer, JsonException> errors;
+
+	ValidationReport (int size, BitSet failures, SortedMap<Integer, JsonException> errors) {
+		this.size = size;
+		this.failures = failures;
+		this.errors = Collections.unmodifiableSortedMap (errors);
+	}
+
+	public int size () {
+		return size;
+	}
+
+	public boolean isValid () {
+		return failures.isEmpty ();
+	}
+
+	public boolean failed (int index) {
+		return failures.get (index);
+	}
+
+	public int failureCount () {
+		return failures.cardinality ();
+	}
+
+	public BitSet failures () {
+		return (BitSet) failures.clone ();
+	}
+
+	public SortedMap<Integer, JsonException> errors () {
+		return errors;
+	}
+
+}
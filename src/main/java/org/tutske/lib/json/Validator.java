@@ -0,0 +1,126 @@
+package org.tutske.lib.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class Validator {
+
+	private static final int REQUIRED = 1;
+	private static final int PRIMITIVE = 2;
+	private static final int STRING = 4;
+	private static final int ABSENT = 8;
+
+	private final String [] names;
+	private final int [] flags;
+	private final Constraint [] constraints;
+
+	private Validator (Schema schema) {
+		Map<String, Integer> combined = new LinkedHashMap<> ();
+		for ( Constraint constraint : schema.constraints ) {
+			for ( String field : constraint.fields ) {
+				combined.merge (field, constraint.flags, (l, r) -> l | r);
+			}
+		}
+
+		this.names = new String [combined.size ()];
+		this.flags = new int [combined.size ()];
+		this.constraints = schema.constraints.toArray (new Constraint [0]);
+
+		int i = 0;
+		for ( Map.Entry<String, Integer> entry : combined.entrySet () ) {
+			names[i] = entry.getKey ();
+			flags[i] = entry.getValue ();
+			i++;
+		}
+	}
+
+	public boolean test (JsonNode node) {
+		if ( node == null || ! node.isObject () ) { return false; }
+
+		for ( int i = 0; i < names.length; i++ ) {
+			JsonNode value = node.get (names[i]);
+			int flag = flags[i];
+
+			if ( (flag & ABSENT) != 0 && value != null ) { return false; }
+			if ( flag == ABSENT ) { continue; }
+
+			if ( value == null || value.isNull () ) { return false; }
+			if ( (flag & PRIMITIVE) != 0 && value.isContainerNode () ) { return false; }
+			if ( (flag & STRING) != 0 && (! value.isTextual () || value.textValue ().isEmpty ()) ) { return false; }
+		}
+
+		return true;
+	}
+
+	public void validate (JsonNode node) {
+		if ( ! test (node) ) { replay (node); }
+	}
+
+	public JsonException check (JsonNode node) {
+		if ( test (node) ) { return null; }
+		try { replay (node); }
+		catch ( JsonException e ) { return e; }
+		return null;
+	}
+
+	private void replay (JsonNode node) {
+		Validate.assureObject (node);
+		for ( Constraint constraint : constraints ) {
+			constraint.assure ((ObjectNode) node);
+		}
+	}
+
+	public static class Schema {
+		private final List<Constraint> constraints = new ArrayList<> ();
+
+		Schema () {}
+
+		public Schema fields (String ... fields) {
+			constraints.add (new Constraint (REQUIRED, fields));
+			return this;
+		}
+
+		public Schema absence (String ... fields) {
+			constraints.add (new Constraint (ABSENT, fields));
+			return this;
+		}
+
+		public Schema primitiveFields (String ... fields) {
+			constraints.add (new Constraint (REQUIRED | PRIMITIVE, fields));
+			return this;
+		}
+
+		public Schema nonEmptyStrings (String ... fields) {
+			constraints.add (new Constraint (REQUIRED | PRIMITIVE | STRING, fields));
+			return this;
+		}
+
+		Validator compile () {
+			return new Validator (this);
+		}
+	}
+
+	private static class Constraint {
+		private final int flags;
+		private final String [] fields;
+
+		Constraint (int flags, String [] fields) {
+			this.flags = flags;
+			this.fields = fields.clone ();
+		}
+
+		void assure (ObjectNode obj) {
+			if ( (flags & ABSENT) != 0 ) { Validate.assureAbsence (obj, fields); }
+			else if ( (flags & STRING) != 0 ) { Validate.assureNonEmptyStrings (obj, fields); }
+			else if ( (flags & PRIMITIVE) != 0 ) { Validate.assurePrimitiveFields (obj, fields); }
+			else { Validate.assureFields (obj, fields); }
+		}
+	}
+
+}
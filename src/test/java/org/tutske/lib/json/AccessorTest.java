@@ -0,0 +1,167 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.util.Map;
+
+
+public class AccessorTest {
+
+	private final JsonNode order = Json.objectNode (
+		"id", 12,
+		"customer", Json.objectNode (
+			"name", "John",
+			"address", Json.objectNode ("zip", "1234AB", "city", "Utrecht")
+		),
+		"lines", Json.arrayNode (
+			Json.objectNode ("sku", "a", "amount", 1),
+			Json.objectNode ("sku", "b", "amount", 2)
+		),
+		"a/b", 1,
+		"m~n", 2,
+		"0", "zero"
+	);
+
+	@Test
+	public void it_should_get_nested_fields_with_dots () {
+		assertThat (Accessor.compile ("customer.address.zip").get (order).asText (), is ("1234AB"));
+	}
+
+	@Test
+	public void it_should_get_array_elements_with_brackets () {
+		assertThat (Accessor.compile ("lines[1].sku").get (order).asText (), is ("b"));
+		assertThat (Accessor.compile ("lines[0]").get (order), is (Json.objectNode ("sku", "a", "amount", 1)));
+	}
+
+	@Test
+	public void it_should_get_quoted_field_names_with_brackets () {
+		assertThat (Accessor.compile ("['a/b']").get (order).asInt (), is (1));
+		assertThat (Accessor.compile ("customer[\"address\"].city").get (order).asText (), is ("Utrecht"));
+	}
+
+	@Test
+	public void it_should_get_values_with_json_pointers () {
+		assertThat (Accessor.compile ("/customer/address/zip").get (order).asText (), is ("1234AB"));
+		assertThat (Accessor.compile ("/lines/1/amount").get (order).asInt (), is (2));
+		assertThat (Accessor.compile ("/a~1b").get (order).asInt (), is (1));
+		assertThat (Accessor.compile ("/m~0n").get (order).asInt (), is (2));
+		assertThat (Accessor.compile ("/0").get (order).asText (), is ("zero"));
+		assertThat (Accessor.compile ("").get (order), sameInstance (order));
+	}
+
+	@Test
+	public void it_should_return_missing_nodes_for_paths_that_do_not_exist () {
+		assertThat (Accessor.compile ("customer.phone").get (order).isMissingNode (), is (true));
+		assertThat (Accessor.compile ("lines[5].sku").get (order).isMissingNode (), is (true));
+		assertThat (Accessor.compile ("id.nested").get (order).isMissingNode (), is (true));
+		assertThat (Accessor.compile ("customer[0]").get (order).isMissingNode (), is (true));
+		assertThat (Accessor.compile ("lines.sku").get (order).isMissingNode (), is (true));
+		assertThat (Accessor.compile ("id").get (null).isMissingNode (), is (true));
+		assertThat (Accessor.compile ("customer.name").has (order), is (true));
+	}
+
+	@Test
+	public void it_should_complain_about_malformed_expressions () {
+		assertThrows (JsonException.class, () -> Accessor.compile ("lines[1"));
+		assertThrows (JsonException.class, () -> Accessor.compile ("lines[x]"));
+		assertThrows (JsonException.class, () -> Accessor.compile ("lines[-1]"));
+		assertThrows (JsonException.class, () -> Accessor.compile ("a..b"));
+		assertThrows (JsonException.class, () -> Accessor.compile ("a."));
+		assertThrows (JsonException.class, () -> Accessor.compile ("/a~2"));
+	}
+
+	@Test
+	public void it_should_reuse_cached_accessors () {
+		assertThat (Json.accessor ("customer.name"), sameInstance (Json.accessor (new String ("customer.name"))));
+		assertThat (Accessor.compile ("customer.name"), is (Json.accessor ("customer.name")));
+	}
+
+	@Test
+	public void it_should_keep_only_the_requested_paths () {
+		ObjectNode kept = Json.keepPaths (order, Json.accessor ("id"), Json.accessor ("customer.address.zip"));
+		assertThat (kept, is (Json.objectNode (
+			"id", 12,
+			"customer", Json.objectNode ("address", Json.objectNode ("zip", "1234AB"))
+		)));
+	}
+
+	@Test
+	public void it_should_keep_paths_in_the_order_of_the_original () {
+		ObjectNode kept = Json.keepPaths (order, Json.accessor ("customer.name"), Json.accessor ("id"));
+		assertThat (Json.stringify (kept), is ("{\"id\":12,\"customer\":{\"name\":\"John\"}}"));
+	}
+
+	@Test
+	public void it_should_keep_selected_array_elements () {
+		ObjectNode kept = Json.keepPaths (order, Json.accessor ("lines[1].sku"));
+		assertThat (kept, is (Json.objectNode ("lines", Json.arrayNode (Json.objectNode ("sku", "b")))));
+	}
+
+	@Test
+	public void it_should_leave_the_positions_of_kept_array_elements_out () {
+		ObjectNode kept = Json.keepPaths (order, Json.accessor ("lines[1]"));
+		assertThat (kept.path ("lines").size (), is (1));
+		assertThat (kept.path ("lines").get (0), is (order.path ("lines").get (1)));
+	}
+
+	@Test
+	public void it_should_still_call_keep_and_purge_without_keys () {
+		assertThat (Json.keep (order), is (Json.objectNode ()));
+		assertThat (Json.purge (order), is (order));
+	}
+
+	@Test
+	public void it_should_only_turn_objects_into_maps_by_path () {
+		assertThrows (JsonException.class, () -> {
+			Json.toMap (Json.arrayNode (1, 2), (key, value) -> value, Json.accessor ("/0"));
+		});
+	}
+
+	@Test
+	public void it_should_leave_out_paths_that_do_not_exist () {
+		ObjectNode kept = Json.keepPaths (order, Json.accessor ("customer.phone"), Json.accessor ("missing"));
+		assertThat (kept, is (Json.objectNode ()));
+	}
+
+	@Test
+	public void it_should_purge_nested_paths () {
+		ObjectNode purged = Json.purgePaths (order, Json.accessor ("customer.address"), Json.accessor ("/lines/0"));
+
+		assertThat (purged.path ("customer"), is (Json.objectNode ("name", "John")));
+		assertThat (purged.path ("lines").size (), is (1));
+		assertThat (purged.path ("lines").get (0).path ("sku").asText (), is ("b"));
+		assertThat (purged.path ("id").asInt (), is (12));
+	}
+
+	@Test
+	public void it_should_not_change_the_original_when_purging () {
+		Json.purgePaths (order, Json.accessor ("customer.address.zip"));
+		assertThat (order.path ("customer").path ("address").has ("zip"), is (true));
+	}
+
+	@Test
+	public void it_should_share_untouched_subtrees_when_purging () {
+		ObjectNode purged = Json.purgePaths (order, Json.accessor ("customer.name"));
+		assertThat (purged.get ("lines"), sameInstance (order.get ("lines")));
+		assertThat (purged.get ("customer").get ("address"), sameInstance (order.get ("customer").get ("address")));
+	}
+
+	@Test
+	public void it_should_turn_accessed_values_into_maps () {
+		Map<String, String> map = Json.toMap (order, (key, value) -> value.asText (),
+			Json.accessor ("customer.name"),
+			Json.accessor ("lines[0].sku"),
+			Json.accessor ("missing")
+		);
+
+		assertThat (map.keySet (), contains ("customer.name", "lines[0].sku"));
+		assertThat (map.get ("lines[0].sku"), is ("a"));
+	}
+
+}
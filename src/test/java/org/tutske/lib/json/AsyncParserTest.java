@@ -0,0 +1,160 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class AsyncParserTest {
+
+	private final List<JsonNode> nodes = new ArrayList<> ();
+
+	@Test
+	public void it_should_parse_a_document_fed_in_one_go () throws Exception {
+		String json = json ("{ 'key': 'value', 'list': [ 1, 2.5, true, null, { 'nested': 'x' } ] }");
+		try ( AsyncParser parser = Json.asyncParser (nodes::add) ) {
+			parser.feed (bytes (json));
+		}
+		assertThat (nodes, contains ((JsonNode) Json.parse (json)));
+	}
+
+	@Test
+	public void it_should_parse_a_document_fed_byte_by_byte () throws Exception {
+		String json = json ("{ 'key': 'value', 'list': [ 1, 2, 3 ], 'big': 12345678901234 }");
+		AsyncParser parser = Json.asyncParser (nodes::add);
+		for ( byte b : bytes (json) ) {
+			parser.feed (new byte [] { b });
+		}
+		parser.end ();
+
+		assertThat (nodes, contains ((JsonNode) Json.parse (json)));
+	}
+
+	@Test
+	public void it_should_emit_documents_as_soon_as_they_are_complete () throws Exception {
+		AsyncParser parser = Json.asyncParser (nodes::add);
+
+		parser.feed (bytes (json ("{ 'id': 1 } { 'id'")));
+		assertThat (nodes.size (), is (1));
+
+		parser.feed (bytes (json (": 2 }\n[ 3 ]")));
+		assertThat (nodes.size (), is (3));
+
+		parser.end ();
+		assertThat (nodes, contains (
+			(JsonNode) Json.objectNode ("id", 1),
+			Json.objectNode ("id", 2),
+			Json.arrayNode (3)
+		));
+	}
+
+	@Test
+	public void it_should_emit_top_level_scalars () throws Exception {
+		AsyncParser parser = Json.asyncParser (nodes::add);
+		parser.feed (bytes (json ("'text' 12 true")));
+		parser.end ();
+
+		assertThat (nodes, contains (Json.valueOf ("text"), Json.valueOf (12), Json.valueOf (true)));
+	}
+
+	@Test
+	public void it_should_accept_heap_and_direct_byte_buffers () throws Exception {
+		AsyncParser parser = Json.asyncParser (nodes::add);
+
+		ByteBuffer heap = ByteBuffer.wrap (bytes (json ("{ 'a': 1 }")));
+		ByteBuffer direct = ByteBuffer.allocateDirect (32);
+		direct.put (bytes (json ("{ 'b': 2 }"))).flip ();
+
+		parser.feed (heap);
+		parser.feed (direct);
+		parser.end ();
+
+		assertThat (heap.hasRemaining (), is (false));
+		assertThat (direct.hasRemaining (), is (false));
+		assertThat (nodes, contains ((JsonNode) Json.objectNode ("a", 1), Json.objectNode ("b", 2)));
+	}
+
+	@Test
+	public void it_should_build_nodes_with_the_mapper_configuration () throws Exception {
+		ObjectMapper mapper = Mappers.compactMapper ()
+			.enable (DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+		AsyncParser parser = Json.asyncParser (mapper, nodes::add);
+		parser.feed (bytes (json ("{ 'value': 1.25, 'count': 7 }")));
+		parser.end ();
+
+		assertThat (nodes.get (0).path ("value").decimalValue (), is (new BigDecimal ("1.25")));
+		assertThat (nodes.get (0).path ("count"), sameInstance (CompactNodeFactory.instance.numberNode (7)));
+	}
+
+	@Test
+	public void it_should_build_the_same_tree_as_parsing_with_the_mapper () throws Exception {
+		ObjectMapper mapper = Mappers.mapper ()
+			.enable (DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+			.enable (DeserializationFeature.USE_LONG_FOR_INTS);
+		String json = json ("{ 'value': 1.25, 'count': 7, 'nested': [ 0.5, 3 ] }");
+
+		AsyncParser parser = Json.asyncParser (mapper, nodes::add);
+		parser.feed (bytes (json));
+		parser.end ();
+
+		JsonNode parsed = Json.parse (mapper, json);
+		assertThat (nodes.get (0), is (parsed));
+		assertThat (nodes.get (0).path ("count").isLong (), is (true));
+	}
+
+	@Test
+	public void it_should_complain_about_duplicate_keys_when_the_mapper_does () {
+		ObjectMapper mapper = Mappers.mapper ().enable (DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY);
+		AsyncParser parser = Json.asyncParser (mapper, nodes::add);
+		assertThrows (JsonParseException.class, () -> parser.feed (bytes (json ("{ 'a': 1, 'a': 2 }"))));
+	}
+
+	@Test
+	public void it_should_let_the_last_duplicate_key_win_by_default () throws Exception {
+		AsyncParser parser = Json.asyncParser (nodes::add);
+		parser.feed (bytes (json ("{ 'a': 1, 'a': 2 }")));
+		assertThat (nodes, contains ((JsonNode) Json.objectNode ("a", 2)));
+	}
+
+	@Test
+	public void it_should_complain_about_malformed_input () {
+		AsyncParser parser = Json.asyncParser (nodes::add);
+		assertThrows (JsonParseException.class, () -> parser.feed (bytes ("{ \"key\" ]")));
+	}
+
+	@Test
+	public void it_should_complain_about_incomplete_documents_at_the_end () throws Exception {
+		AsyncParser parser = Json.asyncParser (nodes::add);
+		parser.feed (bytes ("{ \"key\": [ 1, 2"));
+		assertThrows (JsonParseException.class, parser::end);
+	}
+
+	@Test
+	public void it_should_complain_about_input_after_the_end () throws Exception {
+		AsyncParser parser = Json.asyncParser (nodes::add);
+		parser.end ();
+		assertThrows (JsonException.class, () -> parser.feed (bytes ("{}")));
+	}
+
+	private static byte [] bytes (String json) {
+		return json.getBytes (StandardCharsets.UTF_8);
+	}
+
+	private static String json (String json) {
+		return json.replaceAll ("'", "\"");
+	}
+
+}
@@ -0,0 +1,136 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+
+public class CompactNodeFactoryTest {
+
+	private final CompactNodeFactory factory = new CompactNodeFactory ();
+	private final ObjectMapper mapper = Mappers.compactMapper ();
+
+	@Test
+	public void it_should_parse_the_same_trees_as_the_default_factory () throws Exception {
+		String json = "{'a':1,'b':'text','c':[1,2,{'d':null}],'e':{'f':true,'g':2.5}}".replaceAll ("'", "\"");
+		JsonNode compact = Json.parse (mapper, json);
+		JsonNode regular = Json.parse (json);
+
+		assertThat (compact, is (regular));
+		assertThat (regular, is (compact));
+	}
+
+	@Test
+	public void it_should_have_the_same_hash_code_as_default_trees () throws Exception {
+		String json = "{'a':1,'b':'text','c':{'d':[]}}".replaceAll ("'", "\"");
+		JsonNode compact = Json.parse (mapper, json);
+		JsonNode regular = Json.parse (json);
+		assertThat (compact.hashCode (), is (regular.hashCode ()));
+	}
+
+	@Test
+	public void it_should_stringify_like_default_trees () throws Exception {
+		String json = "{'z':1,'a':2,'m':{'x':'y'}}".replaceAll ("'", "\"");
+		assertThat (Json.stringify (Json.parse (mapper, json)), is (json));
+	}
+
+	@Test
+	public void it_should_share_small_integers () {
+		assertThat (factory.numberNode (500), sameInstance (factory.numberNode (500)));
+		assertThat (factory.numberNode (-100), sameInstance (factory.numberNode (Integer.valueOf (-100))));
+		assertThat (factory.numberNode (100000).intValue (), is (100000));
+	}
+
+	@Test
+	public void it_should_share_short_text_nodes () {
+		assertThat (factory.textNode ("value"), sameInstance (factory.textNode (new String ("value"))));
+		assertThat (factory.textNode ("other").textValue (), is ("other"));
+	}
+
+	@Test
+	public void it_should_share_text_nodes_across_parses () throws Exception {
+		JsonNode first = Json.parse (mapper, "{\"key\":\"value\"}");
+		JsonNode second = Json.parse (mapper, "{\"key\":\"value\"}");
+		assertThat (first.get ("key"), sameInstance (second.get ("key")));
+	}
+
+	@Test
+	public void it_should_keep_insertion_order_when_growing_past_the_compact_size () {
+		ObjectNode node = factory.objectNode ();
+		List<String> expected = new ArrayList<> ();
+		for ( int i = 20; i > 0; i-- ) {
+			node.put ("key-" + i, i);
+			expected.add ("key-" + i);
+		}
+
+		assertThat (keys (node), is (expected));
+		assertThat (node.get ("key-3").asInt (), is (3));
+		assertThat (node.size (), is (20));
+	}
+
+	@Test
+	public void it_should_replace_values_in_place () {
+		ObjectNode node = factory.objectNode ();
+		node.put ("a", 1).put ("b", 2).put ("c", 3);
+		node.put ("b", 20);
+
+		assertThat (keys (node), contains ("a", "b", "c"));
+		assertThat (node.get ("b").asInt (), is (20));
+	}
+
+	@Test
+	public void it_should_remove_fields () {
+		ObjectNode node = factory.objectNode ();
+		node.put ("a", 1).put ("b", 2).put ("c", 3);
+		node.remove ("b");
+
+		assertThat (keys (node), contains ("a", "c"));
+		assertThat (node.has ("b"), is (false));
+	}
+
+	@Test
+	public void it_should_remove_fields_through_the_iterator () {
+		ObjectNode node = factory.objectNode ();
+		node.put ("a", 1).put ("b", 2).put ("c", 3).put ("d", 4);
+
+		Iterator<Map.Entry<String, JsonNode>> it = node.fields ();
+		while ( it.hasNext () ) {
+			if ( it.next ().getValue ().asInt () % 2 == 0 ) { it.remove (); }
+		}
+
+		assertThat (keys (node), contains ("a", "c"));
+	}
+
+	@Test
+	public void it_should_set_values_through_entries () {
+		ObjectNode node = factory.objectNode ();
+		node.put ("a", 1).put ("b", 2);
+
+		node.fields ().next ().setValue (Json.valueOf (10));
+
+		assertThat (node.get ("a").asInt (), is (10));
+	}
+
+	@Test
+	public void it_should_build_compact_nodes_through_the_mapper_builders () {
+		ObjectNode node = Json.objectNode (mapper, "a", 1, "b", Json.arrayNode (mapper, 1, 2));
+		assertThat (node, is (Json.objectNode ("a", 1, "b", Json.arrayNode (1, 2))));
+		assertThat (node.get ("a"), sameInstance (CompactNodeFactory.instance.numberNode (1)));
+	}
+
+	private List<String> keys (ObjectNode node) {
+		List<String> keys = new ArrayList<> ();
+		node.fieldNames ().forEachRemaining (keys::add);
+		return keys;
+	}
+
+}
@@ -2,6 +2,7 @@ package org.tutske.lib.json;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
 import static org.tutske.lib.json.TestUtils.createConfiguredMapper;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -9,6 +10,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
 
 public class JsonExceptionTest {
 
@@ -121,4 +129,110 @@ public class JsonExceptionTest {
 		assertThat (json.path ("key").asText (), is ("value"));
 	}
 
+	@Test
+	public void it_should_only_build_lazy_data_when_it_is_needed () {
+		AtomicInteger calls = new AtomicInteger ();
+		JsonException exception = new JsonException ("Test", () -> {
+			calls.incrementAndGet ();
+			return Json.objectNode ("key", "value");
+		});
+
+		assertThat (calls.get (), is (0));
+
+		JsonNode json = createConfiguredMapper ().valueToTree (exception);
+		createConfiguredMapper ().valueToTree (exception);
+
+		assertThat (calls.get (), is (1));
+		assertThat (json.path ("key").asText (), is ("value"));
+	}
+
+	@Test
+	public void it_should_serialize_lazy_data_the_same_as_eager_data () {
+		ObjectMapper mapper = createConfiguredMapper ();
+		JsonNode lazy = mapper.valueToTree (new JsonException ("Test", () -> Json.objectNode ("key", "value")));
+		JsonNode eager = mapper.valueToTree (new JsonException ("Test", Json.objectNode ("key", "value")));
+		assertThat (lazy, is (eager));
+	}
+
+	@Test
+	public void it_should_overwrite_lazy_data_with_extra_data () {
+		JsonException exception = new JsonException ("Test", () -> Json.objectNode ("key", "lazy value"));
+		exception.addExtra (Json.objectNode ("key", "extra value"));
+
+		JsonNode json = createConfiguredMapper ().valueToTree (exception);
+
+		assertThat (json.path ("key").asText (), is ("extra value"));
+	}
+
+	@Test
+	public void it_should_copy_lazy_data_into_wrapping_exceptions () {
+		JsonException cause = new JsonException ("Test", () -> Json.objectNode ("key", "value"));
+		JsonException exception = new JsonException (cause);
+		assertThat (exception.getData ().path ("key").asText (), is ("value"));
+	}
+
+	@Test
+	public void it_should_not_fill_in_stack_traces_when_asked_not_to () {
+		JsonException exception = new JsonException ("Test", () -> Json.objectNode (), false);
+		assertThat (exception.getStackTrace ().length, is (0));
+	}
+
+	@Test
+	public void it_should_fill_in_stack_traces_for_lazy_data_by_default () {
+		JsonException exception = new JsonException ("Test", () -> Json.objectNode ());
+		assertThat (exception.getStackTrace ().length, greaterThan (0));
+	}
+
+	@Test
+	public void it_should_accept_a_cause_later_on_lazy_exceptions () {
+		Exception cause = new RuntimeException ("cause");
+		JsonException exception = new JsonException ("Test", () -> Json.objectNode ());
+		exception.initCause (cause);
+		assertThat (exception.getCause (), sameInstance (cause));
+	}
+
+	@Test
+	public void it_should_accept_a_cause_later_on_validation_exceptions () {
+		Exception cause = new RuntimeException ("cause");
+		JsonException exception = assertThrows (JsonException.class, () -> Validate.assureObject (Json.arrayNode ()));
+		exception.initCause (cause);
+		assertThat (exception.getCause (), sameInstance (cause));
+	}
+
+	@Test
+	public void it_should_fill_the_data_field_with_lazy_data () {
+		JsonException exception = new JsonException ("Test", () -> Json.objectNode ("key", "value"));
+		assertThat (exception.data.path ("key").asText (), is ("value"));
+	}
+
+	@Test
+	public void it_should_java_serialize_exceptions_with_lazy_data () throws Exception {
+		AtomicInteger calls = new AtomicInteger ();
+		JsonException exception = new JsonException ("Test", () -> {
+			calls.incrementAndGet ();
+			return Json.objectNode ("key", "value");
+		});
+
+		JsonException copy = roundTrip (exception);
+
+		assertThat (calls.get (), is (1));
+		assertThat (copy.getMessage (), is ("Test"));
+		assertThat (copy.getData (), is (Json.objectNode ("key", "value")));
+	}
+
+	@Test
+	public void it_should_keep_data_changeable_after_java_serialization () throws Exception {
+		JsonException copy = roundTrip (new JsonException ("Test", Json.objectNode ("key", "value")));
+		copy.addExtra (Json.objectNode ("extra", "appended later"));
+		assertThat (copy.getData ().path ("extra").asText (), is ("appended later"));
+	}
+
+	private static JsonException roundTrip (JsonException exception) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+		try ( ObjectOutputStream out = new ObjectOutputStream (bytes) ) { out.writeObject (exception); }
+		try ( ObjectInputStream in = new ObjectInputStream (new ByteArrayInputStream (bytes.toByteArray ())) ) {
+			return (JsonException) in.readObject ();
+		}
+	}
+
 }
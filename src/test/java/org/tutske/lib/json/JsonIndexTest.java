@@ -0,0 +1,151 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class JsonIndexTest {
+
+	private final ArrayNode people = Json.arrayNode (
+		Json.objectNode ("id", 1, "name", "John", "team", "red"),
+		Json.objectNode ("id", 2, "name", "Jane", "team", "blue"),
+		Json.objectNode ("id", 3, "name", "Jack", "team", "red"),
+		Json.objectNode ("name", "Nobody"),
+		"not an object"
+	);
+
+	@Test
+	public void it_should_find_elements_by_field_value () {
+		JsonIndex<JsonNode> index = Json.index (people, "id");
+		assertThat (index.get (Json.valueOf (2)).path ("name").asText (), is ("Jane"));
+	}
+
+	@Test
+	public void it_should_return_the_same_as_find () {
+		JsonIndex<JsonNode> index = Json.index (people, "team");
+		JsonNode expected = Json.find (people, node -> node.path ("team").asText ().equals ("red"));
+		assertThat (index.get (Json.valueOf ("red")), sameInstance (expected));
+	}
+
+	@Test
+	public void it_should_return_missing_nodes_for_unknown_keys () {
+		JsonIndex<JsonNode> index = Json.index (people, "id");
+		assertThat (index.get (Json.valueOf (12)).isMissingNode (), is (true));
+		assertThat (index.contains (Json.valueOf (12)), is (false));
+		assertThat (index.getAll (Json.valueOf (12)).size (), is (0));
+	}
+
+	@Test
+	public void it_should_return_all_matches_in_array_order () {
+		JsonIndex<JsonNode> index = Json.index (people, "team");
+		ArrayNode red = index.getAll (Json.valueOf ("red"));
+
+		assertThat (red.size (), is (2));
+		assertThat (red.get (0).path ("name").asText (), is ("John"));
+		assertThat (red.get (1).path ("name").asText (), is ("Jack"));
+	}
+
+	@Test
+	public void it_should_skip_elements_without_a_key () {
+		JsonIndex<JsonNode> index = Json.index (people, "id");
+		assertThat (index.size (), is (3));
+	}
+
+	@Test
+	public void it_should_index_by_computed_keys () {
+		JsonIndex<String> index = Json.index (people, node -> node.isObject () ? node.path ("name").asText ().toLowerCase () : null);
+
+		assertThat (index.contains ("nobody"), is (true));
+		assertThat (index.get ("jack").path ("id").asInt (), is (3));
+	}
+
+	@Test
+	public void it_should_not_be_affected_by_changes_to_the_array () {
+		JsonIndex<JsonNode> index = Json.index (people, "id");
+		people.removeAll ();
+
+		assertThat (index.get (Json.valueOf (1)).path ("name").asText (), is ("John"));
+		assertThat (index.getAll (Json.valueOf (1)).size (), is (1));
+	}
+
+	@Test
+	public void it_should_build_the_same_index_in_parallel () {
+		ArrayNode records = Json.arrayNode ();
+		for ( int i = 0; i < 10_000; i++ ) {
+			records.add (Json.objectNode ("id", i, "group", i % 7));
+		}
+
+		JsonIndex<JsonNode> sequential = Json.index (records, "group");
+		JsonIndex<JsonNode> parallel = Json.parallelIndex (records, "group");
+
+		assertThat (parallel.size (), is (sequential.size ()));
+		for ( int group = 0; group < 7; group++ ) {
+			assertThat (parallel.getAll (Json.valueOf (group)), is (sequential.getAll (Json.valueOf (group))));
+			assertThat (parallel.get (Json.valueOf (group)), sameInstance (sequential.get (Json.valueOf (group))));
+		}
+	}
+
+	@Test
+	public void it_should_build_indexes_on_a_custom_pool () {
+		ForkJoinPool pool = new ForkJoinPool (2);
+		try {
+			JsonIndex<Integer> index = Json.parallelIndex (pool, people, node -> node.has ("id") ? node.get ("id").asInt () : null);
+			assertThat (index.get (3).path ("name").asText (), is ("Jack"));
+		} finally {
+			pool.shutdown ();
+		}
+	}
+
+	@Test
+	public void it_should_compare_numeric_keys_by_value () throws Exception {
+		ArrayNode parsed = Json.parse ("[{\"id\": 1}, {\"id\": 2.5}, {\"id\": 12345678901}]");
+		JsonIndex<JsonNode> index = Json.index (parsed, "id");
+
+		assertThat (index.contains (Json.valueOf (1L)), is (true));
+		assertThat (index.contains (Json.valueOf (1.0)), is (true));
+		assertThat (index.contains (Json.valueOf (new BigDecimal ("2.50"))), is (true));
+		assertThat (index.get (Json.valueOf (12345678901L)), sameInstance (parsed.get (2)));
+		assertThat (index.contains (Json.valueOf ("1")), is (false));
+	}
+
+	@Test
+	public void it_should_group_numeric_keys_of_different_types_in_array_order () {
+		ArrayNode array = Json.arrayNode (
+			Json.objectNode ("id", 1, "n", "a"),
+			Json.objectNode ("id", 1L, "n", "b"),
+			Json.objectNode ("id", 1, "n", "c")
+		);
+
+		assertThat (Json.index (array, "id").getAll (Json.valueOf (1)).size (), is (3));
+		assertThat (Json.parallelIndex (array, "id").getAll (Json.valueOf (1L)).get (1).path ("n").asText (), is ("b"));
+	}
+
+	@Test
+	public void it_should_compute_every_key_once_when_indexing_in_parallel () {
+		ArrayNode array = Json.arrayNode ();
+		for ( int i = 0; i < 1_000; i++ ) { array.add (Json.objectNode ("id", i)); }
+
+		AtomicInteger calls = new AtomicInteger ();
+		Json.parallelIndex (array, node -> { calls.incrementAndGet (); return node.path ("id").asInt (); });
+
+		assertThat (calls.get (), is (1_000));
+	}
+
+	@Test
+	public void it_should_compare_numbers_by_value_unlike_the_set_operations () {
+		ArrayNode ids = Json.arrayNode (Json.valueOf (1), Json.valueOf (1L), Json.valueOf (1.0));
+		JsonIndex<JsonNode> index = Json.index (ids, node -> node);
+
+		assertThat (Json.distinct (ids).size (), is (3));
+		assertThat (index.getAll (Json.valueOf (1)).size (), is (3));
+	}
+
+}
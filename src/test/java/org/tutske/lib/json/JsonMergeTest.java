@@ -0,0 +1,160 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+
+public class JsonMergeTest {
+
+	@Test
+	public void it_should_merge_nested_objects () throws Exception {
+		ObjectNode target = object ("{'a': {'b': 1, 'c': {'d': 2}}, 'e': 3}");
+		Json.deepMerge (target, object ("{'a': {'c': {'f': 4}}, 'g': 5}"));
+		assertThat (target, is (json ("{'a': {'b': 1, 'c': {'d': 2, 'f': 4}}, 'e': 3, 'g': 5}")));
+	}
+
+	@Test
+	public void it_should_let_later_sources_win () throws Exception {
+		ObjectNode target = object ("{'a': {'b': 1}, 'c': 1}");
+		Json.deepMerge (target, object ("{'a': {'b': 2}, 'c': {'d': 1}}"), object ("{'a': 3}"));
+		assertThat (target, is (json ("{'a': 3, 'c': {'d': 1}}")));
+	}
+
+	@Test
+	public void it_should_modify_the_target_in_place () throws Exception {
+		ObjectNode target = object ("{'a': {'b': 1}}");
+		JsonNode nested = target.get ("a");
+		ObjectNode result = Json.deepMerge (target, object ("{'a': {'c': 2}}"));
+
+		assertThat (result, sameInstance (target));
+		assertThat (target.get ("a"), sameInstance (nested));
+		assertThat (nested, is (json ("{'b': 1, 'c': 2}")));
+	}
+
+	@Test
+	public void it_should_reuse_untouched_subtrees () throws Exception {
+		ObjectNode source = object ("{'a': {'b': [1, 2]}, 'c': [3]}");
+		ObjectNode target = Json.deepMerge (Json.objectNode (), source);
+		assertThat (target.get ("a"), sameInstance (source.get ("a")));
+		assertThat (target.get ("c"), sameInstance (source.get ("c")));
+	}
+
+	@Test
+	public void it_should_not_modify_earlier_sources_merged_in_the_same_call () throws Exception {
+		ObjectNode base = object ("{'db': {'host': 'localhost', 'port': 5432}}");
+		ObjectNode override = object ("{'db': {'host': 'other'}}");
+		ObjectNode config = Json.deepMerge (Json.objectNode (), base, override);
+
+		assertThat (config, is (json ("{'db': {'host': 'other', 'port': 5432}}")));
+		assertThat (base, is (json ("{'db': {'host': 'localhost', 'port': 5432}}")));
+	}
+
+	@Test
+	public void it_should_share_objects_taken_over_in_an_earlier_call () throws Exception {
+		ObjectNode base = object ("{'db': {'host': 'localhost', 'port': 5432}}");
+		ObjectNode config = Json.deepMerge (Json.objectNode (), base);
+		Json.deepMerge (config, object ("{'db': {'host': 'other'}}"));
+
+		assertThat (config.get ("db"), sameInstance (base.get ("db")));
+		assertThat (base, is (json ("{'db': {'host': 'other', 'port': 5432}}")));
+	}
+
+	@Test
+	public void it_should_not_modify_the_sources () throws Exception {
+		ObjectNode first = object ("{'a': {'b': {'c': 1}}}");
+		ObjectNode second = object ("{'a': {'b': {'d': 2}, 'e': 3}}");
+		ObjectNode target = Json.deepMerge (Json.objectNode (), first, second);
+
+		assertThat (target, is (json ("{'a': {'b': {'c': 1, 'd': 2}, 'e': 3}}")));
+		assertThat (first, is (json ("{'a': {'b': {'c': 1}}}")));
+		assertThat (second, is (json ("{'a': {'b': {'d': 2}, 'e': 3}}")));
+	}
+
+	@Test
+	public void it_should_not_modify_sources_shared_under_multiple_keys () throws Exception {
+		ObjectNode shared = object ("{'b': 1}");
+		ObjectNode first = Json.objectNode ("x", shared, "y", shared);
+		Json.deepMerge (Json.objectNode (), first, object ("{'x': {'c': 2}, 'y': {'d': 3}}"));
+		assertThat (shared, is (json ("{'b': 1}")));
+	}
+
+	@Test
+	public void it_should_skip_missing_sources () throws Exception {
+		ObjectNode target = object ("{'a': 1}");
+		Json.deepMerge (target, null, object ("{'b': 2}"));
+		assertThat (target, is (json ("{'a': 1, 'b': 2}")));
+	}
+
+	@Test
+	public void it_should_replace_arrays_instead_of_merging_them () throws Exception {
+		ObjectNode target = object ("{'a': [1, 2]}");
+		Json.deepMerge (target, object ("{'a': [3]}"));
+		assertThat (target, is (json ("{'a': [3]}")));
+	}
+
+	@Test
+	public void it_should_apply_the_merge_patch_examples () throws Exception {
+		String [][] examples = {
+			{ "{'a': 'b'}", "{'a': 'c'}", "{'a': 'c'}" },
+			{ "{'a': 'b'}", "{'b': 'c'}", "{'a': 'b', 'b': 'c'}" },
+			{ "{'a': 'b'}", "{'a': null}", "{}" },
+			{ "{'a': 'b', 'b': 'c'}", "{'a': null}", "{'b': 'c'}" },
+			{ "{'a': ['b']}", "{'a': 'c'}", "{'a': 'c'}" },
+			{ "{'a': 'c'}", "{'a': ['b']}", "{'a': ['b']}" },
+			{ "{'a': {'b': 'c'}}", "{'a': {'b': 'd', 'c': null}}", "{'a': {'b': 'd'}}" },
+			{ "{'a': [{'b': 'c'}]}", "{'a': [1]}", "{'a': [1]}" },
+			{ "['a', 'b']", "['c', 'd']", "['c', 'd']" },
+			{ "{'a': 'b'}", "['c']", "['c']" },
+			{ "{'a': 'foo'}", "null", "null" },
+			{ "{'a': 'foo'}", "'bar'", "'bar'" },
+			{ "{'e': null}", "{'a': 1}", "{'e': null, 'a': 1}" },
+			{ "[1, 2]", "{'a': 'b', 'c': null}", "{'a': 'b'}" },
+			{ "{}", "{'a': {'bb': {'ccc': null}}}", "{'a': {'bb': {}}}" }
+		};
+		for ( String [] example : examples ) {
+			assertThat (Json.mergePatch (json (example[0]), json (example[1])), is (json (example[2])));
+		}
+	}
+
+	@Test
+	public void it_should_patch_the_target_in_place () throws Exception {
+		ObjectNode target = object ("{'a': {'b': 1, 'c': 2}}");
+		JsonNode nested = target.get ("a");
+		JsonNode result = Json.mergePatch (target, json ("{'a': {'c': null, 'd': 3}}"));
+
+		assertThat (result, sameInstance (target));
+		assertThat (target.get ("a"), sameInstance (nested));
+		assertThat (target, is (json ("{'a': {'b': 1, 'd': 3}}")));
+	}
+
+	@Test
+	public void it_should_not_share_objects_with_the_patch () throws Exception {
+		JsonNode patch = json ("{'a': {'b': 1}}");
+		JsonNode target = Json.mergePatch (Json.objectNode (), patch);
+		Json.mergePatch (target, json ("{'a': {'c': 2}}"));
+		assertThat (patch, is (json ("{'a': {'b': 1}}")));
+	}
+
+	@Test
+	public void it_should_share_arrays_with_the_patch () throws Exception {
+		JsonNode patch = json ("{'a': [1, 2]}");
+		JsonNode target = Json.mergePatch (Json.objectNode (), patch);
+		assertThat (target.get ("a"), sameInstance (patch.get ("a")));
+
+		JsonNode root = json ("[1, 2]");
+		assertThat (Json.mergePatch (Json.objectNode (), root), sameInstance (root));
+	}
+
+	private ObjectNode object (String json) throws Exception {
+		return (ObjectNode) json (json);
+	}
+
+	private JsonNode json (String json) throws Exception {
+		return Json.parse (json.replaceAll ("'", "\""));
+	}
+
+}
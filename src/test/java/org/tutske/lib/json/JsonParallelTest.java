@@ -0,0 +1,138 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+public class JsonParallelTest {
+
+	private final ArrayNode numbers = IntStream.range (0, 10_000).boxed ().collect (Json.collectToArray ());
+	private final ForkJoinPool pool = new ForkJoinPool (4, p -> {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread (p);
+		thread.setName ("json-test-" + thread.getPoolIndex ());
+		return thread;
+	}, null, false);
+
+	@After
+	public void shutdown () {
+		pool.shutdownNow ();
+	}
+
+	@Test
+	public void it_should_stream_the_elements_of_an_array () {
+		List<Integer> values = Json.stream (Json.arrayNode (1, 2, 3)).map (JsonNode::asInt).collect (Collectors.toList ());
+		assertThat (values, contains (1, 2, 3));
+	}
+
+	@Test
+	public void it_should_report_sized_and_sub_sized_spliterators () {
+		Spliterator<JsonNode> spliterator = Json.stream (numbers).spliterator ();
+
+		assertThat (spliterator.hasCharacteristics (Spliterator.SIZED), is (true));
+		assertThat (spliterator.hasCharacteristics (Spliterator.SUBSIZED), is (true));
+		assertThat (spliterator.hasCharacteristics (Spliterator.ORDERED), is (true));
+		assertThat (spliterator.getExactSizeIfKnown (), is (10_000L));
+	}
+
+	@Test
+	public void it_should_split_arrays_in_halves () {
+		Spliterator<JsonNode> suffix = Json.stream (numbers).spliterator ();
+		Spliterator<JsonNode> prefix = suffix.trySplit ();
+
+		assertThat (prefix.getExactSizeIfKnown (), is (5_000L));
+		assertThat (suffix.getExactSizeIfKnown (), is (5_000L));
+
+		prefix.tryAdvance (node -> assertThat (node.asInt (), is (0)));
+		suffix.tryAdvance (node -> assertThat (node.asInt (), is (5_000)));
+	}
+
+	@Test
+	public void it_should_not_split_single_elements () {
+		assertThat (Json.stream (Json.arrayNode (1)).spliterator ().trySplit (), nullValue ());
+	}
+
+	@Test
+	public void it_should_stream_the_fields_of_an_object () {
+		ObjectNode object = Json.objectNode ("first", 1, "second", 2);
+		Map<String, Integer> values = Json.stream (object).collect (Collectors.toMap (
+			Map.Entry::getKey, e -> e.getValue ().asInt ()
+		));
+
+		assertThat (values.size (), is (2));
+		assertThat (values.get ("second"), is (2));
+	}
+
+	@Test
+	public void it_should_map_in_parallel_and_keep_the_order () {
+		ArrayNode result = Json.parallelMap (numbers, node -> Json.valueOf (node.asInt () * 2));
+
+		assertThat (result.size (), is (10_000));
+		for ( int i = 0; i < result.size (); i++ ) {
+			assertThat (result.get (i).asInt (), is (i * 2));
+		}
+	}
+
+	@Test
+	public void it_should_turn_arrays_into_lists_in_parallel_and_keep_the_order () {
+		List<Integer> result = Json.parallelToList (numbers, JsonNode::asInt);
+		assertThat (result, is (IntStream.range (0, 10_000).boxed ().collect (Collectors.toList ())));
+	}
+
+	@Test
+	public void it_should_reduce_in_parallel () {
+		long sum = Json.parallelReduce (numbers, 0L, (acc, node) -> acc + node.asLong (), Long::sum);
+		assertThat (sum, is (49_995_000L));
+	}
+
+	@Test
+	public void it_should_reduce_in_parallel_and_combine_in_order () {
+		String result = Json.parallelReduce (
+			Json.stream (numbers).limit (100).collect (Json.collectToArray ()),
+			"", (acc, node) -> acc + node.asText () + ",", String::concat
+		);
+		assertThat (result, startsWith ("0,1,2,3,4,5,"));
+		assertThat (result, endsWith ("97,98,99,"));
+	}
+
+	@Test
+	public void it_should_run_on_the_provided_pool () {
+		Set<String> threads = ConcurrentHashMap.newKeySet ();
+
+		Json.parallelMap (pool, numbers, node -> {
+			threads.add (Thread.currentThread ().getName ());
+			return node;
+		});
+
+		assertThat (threads, everyItem (startsWith ("json-test-")));
+	}
+
+	@Test
+	public void it_should_propagate_json_exceptions_with_their_data () {
+		JsonException ex = assertThrows (JsonException.class, () -> {
+			Json.parallelMap (pool, numbers, node -> {
+				throw new JsonException ("Failed", Json.objectNode ("element", node));
+			});
+		});
+
+		assertThat (ex.getMessage (), is ("Failed"));
+		assertThat (ex.data.has ("element"), is (true));
+	}
+
+}
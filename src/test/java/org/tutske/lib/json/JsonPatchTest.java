@@ -0,0 +1,241 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.util.Random;
+
+
+public class JsonPatchTest {
+
+	@Test
+	public void it_should_add_object_members () throws Exception {
+		assertPatch ("{'foo': 'bar'}", "[{'op': 'add', 'path': '/baz', 'value': 'qux'}]", "{'baz': 'qux', 'foo': 'bar'}");
+	}
+
+	@Test
+	public void it_should_add_array_elements () throws Exception {
+		assertPatch ("{'foo': ['bar', 'baz']}", "[{'op': 'add', 'path': '/foo/1', 'value': 'qux'}]", "{'foo': ['bar', 'qux', 'baz']}");
+	}
+
+	@Test
+	public void it_should_add_to_the_end_of_arrays () throws Exception {
+		assertPatch ("{'foo': ['bar']}", "[{'op': 'add', 'path': '/foo/-', 'value': ['abc', 'def']}]", "{'foo': ['bar', ['abc', 'def']]}");
+	}
+
+	@Test
+	public void it_should_remove_object_members () throws Exception {
+		assertPatch ("{'baz': 'qux', 'foo': 'bar'}", "[{'op': 'remove', 'path': '/baz'}]", "{'foo': 'bar'}");
+	}
+
+	@Test
+	public void it_should_remove_array_elements () throws Exception {
+		assertPatch ("{'foo': ['bar', 'qux', 'baz']}", "[{'op': 'remove', 'path': '/foo/1'}]", "{'foo': ['bar', 'baz']}");
+	}
+
+	@Test
+	public void it_should_replace_values () throws Exception {
+		assertPatch ("{'baz': 'qux', 'foo': 'bar'}", "[{'op': 'replace', 'path': '/baz', 'value': 'boo'}]", "{'baz': 'boo', 'foo': 'bar'}");
+	}
+
+	@Test
+	public void it_should_move_values () throws Exception {
+		assertPatch (
+			"{'foo': {'bar': 'baz', 'waldo': 'fred'}, 'qux': {'corge': 'grault'}}",
+			"[{'op': 'move', 'from': '/foo/waldo', 'path': '/qux/thud'}]",
+			"{'foo': {'bar': 'baz'}, 'qux': {'corge': 'grault', 'thud': 'fred'}}"
+		);
+		assertPatch (
+			"{'foo': ['all', 'grass', 'cows', 'eat']}",
+			"[{'op': 'move', 'from': '/foo/1', 'path': '/foo/3'}]",
+			"{'foo': ['all', 'cows', 'eat', 'grass']}"
+		);
+	}
+
+	@Test
+	public void it_should_copy_values () throws Exception {
+		assertPatch ("{'foo': {'bar': 1}}", "[{'op': 'copy', 'from': '/foo', 'path': '/baz'}]", "{'foo': {'bar': 1}, 'baz': {'bar': 1}}");
+	}
+
+	@Test
+	public void it_should_pass_successful_tests () throws Exception {
+		assertPatch (
+			"{'baz': 'qux', 'foo': ['a', 2, 'c']}",
+			"[{'op': 'test', 'path': '/baz', 'value': 'qux'}, {'op': 'test', 'path': '/foo/1', 'value': 2}]",
+			"{'baz': 'qux', 'foo': ['a', 2, 'c']}"
+		);
+	}
+
+	@Test (expected = JsonException.class)
+	public void it_should_fail_unsuccessful_tests () throws Exception {
+		Json.applyPatch (json ("{'baz': 'qux'}"), (ArrayNode) json ("[{'op': 'test', 'path': '/baz', 'value': 'bar'}]"));
+	}
+
+	@Test
+	public void it_should_handle_escaped_keys () throws Exception {
+		assertPatch ("{'a/b': 1, 'm~n': 2}", "[{'op': 'replace', 'path': '/a~1b', 'value': 3}, {'op': 'remove', 'path': '/m~0n'}]", "{'a/b': 3}");
+	}
+
+	@Test
+	public void it_should_replace_the_root () throws Exception {
+		assertPatch ("{'a': 1}", "[{'op': 'replace', 'path': '', 'value': [1, 2]}]", "[1, 2]");
+	}
+
+	@Test
+	public void it_should_not_modify_the_original_by_default () throws Exception {
+		JsonNode original = json ("{'a': {'b': [1, 2]}, 'c': {'d': 1}}");
+		JsonNode copy = original.deepCopy ();
+		JsonNode result = Json.applyPatch (original, (ArrayNode) json ("[{'op': 'add', 'path': '/a/b/-', 'value': 3}]"));
+
+		assertThat (original, is (copy));
+		assertThat (result, is (json ("{'a': {'b': [1, 2, 3]}, 'c': {'d': 1}}")));
+		assertThat (result.get ("c"), sameInstance (original.get ("c")));
+	}
+
+	@Test
+	public void it_should_modify_the_original_when_asked () throws Exception {
+		JsonNode original = json ("{'a': {'b': [1, 2]}}");
+		JsonNode result = Json.applyPatch (original, (ArrayNode) json ("[{'op': 'add', 'path': '/a/b/-', 'value': 3}]"), true);
+
+		assertThat (result, sameInstance (original));
+		assertThat (original, is (json ("{'a': {'b': [1, 2, 3]}}")));
+	}
+
+	@Test
+	public void it_should_not_share_values_with_the_patch () throws Exception {
+		ArrayNode patch = (ArrayNode) json ("[{'op': 'add', 'path': '/a', 'value': {}}, {'op': 'add', 'path': '/a/b', 'value': 1}]");
+		Json.applyPatch (Json.objectNode (), patch);
+		assertThat (patch.get (0).get ("value").size (), is (0));
+	}
+
+	@Test
+	public void it_should_fail_on_missing_paths () throws Exception {
+		String [] patches = {
+			"[{'op': 'remove', 'path': '/missing'}]",
+			"[{'op': 'replace', 'path': '/missing', 'value': 1}]",
+			"[{'op': 'add', 'path': '/missing/child', 'value': 1}]",
+			"[{'op': 'add', 'path': '/list/5', 'value': 1}]",
+			"[{'op': 'move', 'from': '/list', 'path': '/list/0'}]",
+			"[{'op': 'copy', 'from': '/missing', 'path': '/a'}]",
+			"[{'op': 'unknown', 'path': '/a'}]",
+			"[{'op': 'add', 'path': 'list', 'value': 1}]",
+			"[{'path': '/a'}]"
+		};
+		for ( String patch : patches ) {
+			try {
+				Json.applyPatch (json ("{'list': [1, 2]}"), (ArrayNode) json (patch));
+				throw new AssertionError ("expected a failure for " + patch);
+			} catch ( JsonException ignored ) {
+			}
+		}
+	}
+
+	@Test
+	public void it_should_produce_no_operations_for_equal_documents () throws Exception {
+		JsonNode document = json ("{'a': [1, {'b': 2}], 'c': 'd'}");
+		assertThat (Json.diff (document, document).size (), is (0));
+		assertThat (Json.diff (document, document.deepCopy ()).size (), is (0));
+	}
+
+	@Test
+	public void it_should_produce_small_patches_for_small_changes () throws Exception {
+		JsonNode from = json ("{'a': [1, {'b': 2, 'c': 3}, 4], 'd': 'e', 'f': 1}");
+		JsonNode to = json ("{'a': [1, {'b': 2, 'c': 4}, 4], 'd': 'e', 'g': 1}");
+		ArrayNode patch = Json.diff (from, to);
+
+		assertThat (patch, is (json ("[{'op': 'remove', 'path': '/f'}, {'op': 'replace', 'path': '/a/1/c', 'value': 4}, {'op': 'add', 'path': '/g', 'value': 1}]")));
+		assertThat (Json.applyPatch (from, patch), is (to));
+	}
+
+	@Test
+	public void it_should_find_insertions_and_removals_in_arrays () throws Exception {
+		JsonNode from = json ("[1, 2, 3, 4, 5, 6]");
+		JsonNode to = json ("[1, 7, 2, 3, 5, 6, 8]");
+		ArrayNode patch = Json.diff (from, to);
+
+		assertThat (patch.size (), is (3));
+		assertThat (Json.applyPatch (from, patch), is (to));
+	}
+
+	@Test
+	public void it_should_escape_keys_in_paths () throws Exception {
+		JsonNode from = json ("{'a/b': 1, 'm~n': 2}");
+		JsonNode to = json ("{'a/b': 3}");
+		assertThat (Json.applyPatch (from, Json.diff (from, to)), is (to));
+	}
+
+	@Test
+	public void it_should_produce_patches_that_apply_to_random_changes () {
+		Random random = new Random (42);
+		for ( int round = 0; round < 200; round++ ) {
+			JsonNode from = randomNode (random, 3);
+			JsonNode to = mutate (random, from.deepCopy (), 3);
+			ArrayNode patch = Json.diff (from, to);
+
+			assertThat (Json.applyPatch (from, patch), is (to));
+			assertThat (Json.applyPatch (from.deepCopy (), patch, true), is (to));
+		}
+	}
+
+	private void assertPatch (String document, String patch, String expected) throws Exception {
+		JsonNode result = Json.applyPatch (json (document), (ArrayNode) json (patch));
+		assertThat (result, is (json (expected)));
+	}
+
+	private JsonNode json (String json) throws Exception {
+		return Json.parse (json.replaceAll ("'", "\""));
+	}
+
+	private JsonNode randomNode (Random random, int depth) {
+		int kind = depth == 0 ? random.nextInt (3) : random.nextInt (5);
+		switch ( kind ) {
+			case 0: return Json.valueOf (random.nextInt (5));
+			case 1: return Json.valueOf ("v" + random.nextInt (5));
+			case 2: return NullNode.getInstance ();
+			case 3: {
+				ArrayNode array = Json.arrayNode ();
+				for ( int i = random.nextInt (6); i > 0; i-- ) { array.add (randomNode (random, depth - 1)); }
+				return array;
+			}
+			default: {
+				ObjectNode object = Json.objectNode ();
+				for ( int i = random.nextInt (6); i > 0; i-- ) { object.set ("k" + random.nextInt (8), randomNode (random, depth - 1)); }
+				return object;
+			}
+		}
+	}
+
+	private JsonNode mutate (Random random, JsonNode node, int depth) {
+		if ( random.nextInt (6) == 0 ) { return randomNode (random, depth); }
+		if ( node.isArray () ) {
+			ArrayNode array = (ArrayNode) node;
+			for ( int i = random.nextInt (3); i > 0; i-- ) {
+				int action = random.nextInt (3);
+				if ( action == 0 ) { array.insert (random.nextInt (array.size () + 1), randomNode (random, depth - 1)); }
+				else if ( action == 1 && array.size () > 0 ) { array.remove (random.nextInt (array.size ())); }
+				else if ( array.size () > 0 ) {
+					int index = random.nextInt (array.size ());
+					array.set (index, mutate (random, array.get (index), depth - 1));
+				}
+			}
+		}
+		if ( node.isObject () ) {
+			ObjectNode object = (ObjectNode) node;
+			for ( int i = random.nextInt (3); i > 0; i-- ) {
+				String key = "k" + random.nextInt (8);
+				int action = random.nextInt (3);
+				if ( action == 0 ) { object.set (key, randomNode (random, depth - 1)); }
+				else if ( action == 1 ) { object.remove (key); }
+				else if ( object.has (key) ) { object.set (key, mutate (random, object.get (key), depth - 1)); }
+			}
+		}
+		return node;
+	}
+
+}
@@ -0,0 +1,157 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class JsonPipelineTest {
+
+	private final ArrayNode people = Json.arrayNode (
+		Json.objectNode ("id", 1, "name", "John Doe", "active", true),
+		Json.objectNode ("id", 2, "name", "Jane Doe", "active", false),
+		Json.objectNode ("id", 3, "name", "John Smith", "active", true),
+		Json.objectNode ("id", 4, "name", "Jane Smith", "active", true)
+	);
+
+	@Test
+	public void it_should_collect_the_source_when_there_are_no_stages () {
+		ArrayNode result = Json.from (people).collect ();
+		assertThat (result, is (people));
+		assertThat (result, not (sameInstance (people)));
+	}
+
+	@Test
+	public void it_should_filter_and_map_in_a_single_pass () {
+		ArrayNode result = Json.from (people)
+			.filter (node -> node.path ("active").asBoolean ())
+			.map (node -> node.path ("name"))
+			.collect ();
+
+		assertThat (result, is (Json.arrayNode ("John Doe", "John Smith", "Jane Smith")));
+	}
+
+	@Test
+	public void it_should_apply_stages_in_order () {
+		ArrayNode result = Json.from (people)
+			.map (node -> node.path ("id"))
+			.filter (node -> node.asInt () % 2 == 0)
+			.map (node -> Json.valueOf (node.asInt () * 10))
+			.collect ();
+
+		assertThat (result, is (Json.arrayNode (20, 40)));
+	}
+
+	@Test
+	public void it_should_turn_null_results_of_map_into_null_nodes () {
+		ArrayNode result = Json.from (Json.arrayNode (1, 2)).map (node -> null).collect ();
+		assertThat (result.size (), is (2));
+		assertThat (result.path (0).isNull (), is (true));
+	}
+
+	@Test
+	public void it_should_stop_at_the_first_match_when_finding () {
+		AtomicInteger calls = new AtomicInteger ();
+
+		JsonNode found = Json.from (people)
+			.map (node -> { calls.incrementAndGet (); return node.path ("name"); })
+			.find (node -> node.asText ().startsWith ("Jane"));
+
+		assertThat (found.asText (), is ("Jane Doe"));
+		assertThat (calls.get (), is (2));
+	}
+
+	@Test
+	public void it_should_return_a_missing_node_when_nothing_is_found () {
+		JsonNode found = Json.from (people).find (node -> node.path ("id").asInt () > 10);
+		assertThat (found.isMissingNode (), is (true));
+	}
+
+	@Test
+	public void it_should_stop_at_the_first_match_with_any_match () {
+		AtomicInteger calls = new AtomicInteger ();
+
+		boolean match = Json.from (people)
+			.filter (node -> { calls.incrementAndGet (); return true; })
+			.anyMatch (node -> node.path ("active").asBoolean ());
+
+		assertThat (match, is (true));
+		assertThat (calls.get (), is (1));
+	}
+
+	@Test
+	public void it_should_check_all_and_none_match () {
+		assertThat (Json.from (people).allMatch (node -> node.has ("id")), is (true));
+		assertThat (Json.from (people).allMatch (node -> node.path ("active").asBoolean ()), is (false));
+		assertThat (Json.from (people).noneMatch (node -> node.has ("missing")), is (true));
+	}
+
+	@Test
+	public void it_should_reduce_count_and_list_the_remaining_elements () {
+		assertThat (Json.from (people).filter (node -> node.path ("active").asBoolean ()).count (), is (3L));
+		assertThat (Json.from (people).reduce (0, (acc, node) -> acc + node.path ("id").asInt ()), is (10));
+		assertThat (Json.from (people).toList (node -> node.path ("id").asInt ()), contains (1, 2, 3, 4));
+	}
+
+	@Test
+	public void it_should_not_be_affected_by_stages_added_to_derived_pipelines () {
+		JsonPipeline all = Json.from (people);
+		JsonPipeline active = all.filter (node -> node.path ("active").asBoolean ());
+
+		assertThat (all.count (), is (4L));
+		assertThat (active.count (), is (3L));
+	}
+
+	@Test
+	public void it_should_filter_and_map_objects () {
+		ArrayNode result = Json.from (people)
+			.filterObjects (obj -> obj.path ("name").asText ().startsWith ("John"))
+			.mapObjects (obj -> Json.keep (obj, "id"))
+			.collect ();
+
+		assertThat (result, is (Json.arrayNode (Json.objectNode ("id", 1), Json.objectNode ("id", 3))));
+	}
+
+	@Test
+	public void it_should_match_missing_nodes_produced_by_map_stages () {
+		JsonPipeline pipeline = Json.from (Json.arrayNode (Json.objectNode ("x", 1), Json.objectNode ("x", 2)))
+			.map (node -> node.path ("y"));
+
+		assertThat (pipeline.count (), is (2L));
+		assertThat (pipeline.anyMatch (node -> true), is (true));
+		assertThat (pipeline.allMatch (JsonNode::isMissingNode), is (true));
+		assertThat (pipeline.noneMatch (JsonNode::isMissingNode), is (false));
+		assertThat (pipeline.findFirst ().isMissingNode (), is (true));
+	}
+
+	@Test
+	public void it_should_not_match_elements_that_were_filtered_out () {
+		JsonPipeline pipeline = Json.from (Json.arrayNode (1, 2)).filter (node -> false);
+
+		assertThat (pipeline.anyMatch (node -> true), is (false));
+		assertThat (pipeline.allMatch (node -> false), is (true));
+		assertThat (pipeline.noneMatch (node -> true), is (true));
+	}
+
+	@Test
+	public void it_should_complain_when_mapping_objects_over_non_objects () {
+		JsonException ex = assertThrows (JsonException.class, () -> {
+			Json.from (Json.arrayNode (Json.objectNode (), "text")).mapObjects (obj -> obj).collect ();
+		});
+		assertThat (ex.getMessage (), containsString ("non object"));
+	}
+
+	@Test
+	public void it_should_complain_when_creating_a_pipeline_from_a_non_array () {
+		assertThrows (JsonException.class, () -> {
+			Json.from ((JsonNode) Json.objectNode ());
+		});
+	}
+
+}
@@ -0,0 +1,98 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.Test;
+
+
+public class JsonSetOperationsTest {
+
+	@Test
+	public void it_should_keep_the_first_occurrence_of_every_value () {
+		ArrayNode array = Json.arrayNode (1, "a", 1, Json.objectNode ("key", "value"), "a", Json.objectNode ("key", "value"));
+		assertThat (Json.distinct (array), is (Json.arrayNode (1, "a", Json.objectNode ("key", "value"))));
+	}
+
+	@Test
+	public void it_should_keep_the_original_instances () {
+		ArrayNode array = Json.arrayNode (Json.objectNode ("key", "value"), Json.objectNode ("key", "value"));
+		assertThat (Json.distinct (array).get (0), sameInstance (array.get (0)));
+	}
+
+	@Test
+	public void it_should_not_modify_the_original_array () {
+		ArrayNode array = Json.arrayNode (1, 1, 2);
+		Json.distinct (array);
+		assertThat (array, is (Json.arrayNode (1, 1, 2)));
+	}
+
+	@Test
+	public void it_should_compare_nested_values_deeply () {
+		ArrayNode array = Json.arrayNode (
+			Json.objectNode ("nested", Json.arrayNode (1, Json.objectNode ("a", 1))),
+			Json.objectNode ("nested", Json.arrayNode (1, Json.objectNode ("a", 2))),
+			Json.objectNode ("nested", Json.arrayNode (1, Json.objectNode ("a", 1)))
+		);
+		assertThat (Json.distinct (array).size (), is (2));
+	}
+
+	@Test
+	public void it_should_combine_arrays_without_duplicates () {
+		ArrayNode left = Json.arrayNode (1, 2, 2, 3);
+		ArrayNode right = Json.arrayNode (3, 4, 1, 5);
+		assertThat (Json.union (left, right), is (Json.arrayNode (1, 2, 3, 4, 5)));
+	}
+
+	@Test
+	public void it_should_find_the_values_in_both_arrays () {
+		ArrayNode left = Json.arrayNode (1, 2, 3, 2, Json.objectNode ("id", 4));
+		ArrayNode right = Json.arrayNode (Json.objectNode ("id", 4), 2, 5);
+		assertThat (Json.intersect (left, right), is (Json.arrayNode (2, Json.objectNode ("id", 4))));
+	}
+
+	@Test
+	public void it_should_find_the_values_only_in_the_left_array () {
+		ArrayNode left = Json.arrayNode (1, 2, 3, 1, Json.objectNode ("id", 4));
+		ArrayNode right = Json.arrayNode (Json.objectNode ("id", 4), 2, 5);
+		assertThat (Json.difference (left, right), is (Json.arrayNode (1, 3)));
+	}
+
+	@Test
+	public void it_should_tell_whether_all_items_are_contained () {
+		ArrayNode array = Json.arrayNode (1, "a", Json.objectNode ("key", "value"));
+		assertThat (Json.containsAll (array, Json.arrayNode (Json.objectNode ("key", "value"), 1)), is (true));
+		assertThat (Json.containsAll (array, Json.arrayNode (1, 2)), is (false));
+		assertThat (Json.containsAll (array, Json.arrayNode ()), is (true));
+	}
+
+	@Test
+	public void it_should_distinguish_between_number_types_like_contains () {
+		ArrayNode array = Json.arrayNode (1);
+		JsonNode other = Json.valueOf (1L);
+		assertThat (Json.containsAll (array, Json.arrayNode (other)), is (Json.contains (array, other)));
+	}
+
+	@Test
+	public void it_should_handle_large_arrays () {
+		ArrayNode left = Json.arrayNode ();
+		ArrayNode right = Json.arrayNode ();
+		for ( int i = 0; i < 100_000; i++ ) {
+			left.add (Json.objectNode ("id", i, "tags", Json.arrayNode ("a", "b")));
+			right.add (Json.objectNode ("id", 2 * i, "tags", Json.arrayNode ("a", "b")));
+		}
+		assertThat (Json.intersect (left, right).size (), is (50_000));
+		assertThat (Json.difference (left, right).size (), is (50_000));
+		assertThat (Json.union (left, right).size (), is (150_000));
+	}
+
+	@Test
+	public void it_should_compare_numbers_strictly_unlike_an_index () {
+		ArrayNode array = Json.arrayNode (Json.valueOf (1), Json.valueOf (1L), Json.valueOf (1.0));
+		assertThat (Json.distinct (array).size (), is (3));
+		assertThat (Json.difference (Json.arrayNode (Json.valueOf (1)), Json.arrayNode (Json.valueOf (1L))).size (), is (1));
+	}
+
+}
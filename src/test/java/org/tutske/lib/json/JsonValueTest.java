@@ -8,10 +8,13 @@ import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 
 public class JsonValueTest {
@@ -161,4 +164,83 @@ public class JsonValueTest {
 		assertThat (Json.valueOf ((Object) map).isObject (), is (true));
 	}
 
+	@Test
+	public void it_should_turn_custom_maps_and_collections_into_container_nodes () {
+		Map<String, Object> map = new TreeMap<> (Collections.singletonMap ("key", "value"));
+		assertThat (Json.valueOf ((Object) map).isObject (), is (true));
+		assertThat (Json.valueOf ((Object) new ArrayDeque<> (Arrays.asList (1, 2))).isArray (), is (true));
+	}
+
+	@Test
+	public void it_should_turn_unknown_objects_into_pojo_nodes () {
+		assertThat (Json.valueOf ((Object) new Unregistered ()).isPojo (), is (true));
+	}
+
+	@Test
+	public void it_should_use_registered_converters () {
+		Json.registerConverter (Identifier.class, id -> Json.valueOf ("id-" + id.value));
+
+		JsonNode node = Json.valueOf ((Object) new Identifier (12));
+
+		assertThat (node.isTextual (), is (true));
+		assertThat (node.asText (), is ("id-12"));
+	}
+
+	@Test
+	public void it_should_use_registered_converters_for_nested_values () {
+		Json.registerConverter (Identifier.class, id -> Json.valueOf ("id-" + id.value));
+
+		JsonNode node = Json.objectNode ("ids", Arrays.asList (new Identifier (1), new Identifier (2)));
+
+		assertThat (node.path ("ids").path (1).asText (), is ("id-2"));
+	}
+
+	@Test
+	public void it_should_use_registered_converters_for_sub_classes () {
+		Json.registerConverter (Identifier.class, id -> Json.valueOf (id.value));
+		assertThat (Json.valueOf ((Object) new SpecialIdentifier (3)).asInt (), is (3));
+	}
+
+	@Test
+	public void it_should_use_registered_converters_for_interfaces () {
+		Json.registerConverter (Named.class, named -> Json.valueOf (named.name ()));
+		assertThat (Json.valueOf ((Object) new Person ()).asText (), is ("John Doe"));
+	}
+
+	@Test
+	public void it_should_use_converters_registered_after_the_type_was_seen () {
+		assertThat (Json.valueOf ((Object) new Late ()).isPojo (), is (true));
+
+		Json.registerConverter (Late.class, late -> Json.valueOf ("late"));
+
+		assertThat (Json.valueOf ((Object) new Late ()).asText (), is ("late"));
+	}
+
+	@Test
+	public void it_should_turn_null_results_of_converters_into_null_nodes () {
+		Json.registerConverter (Empty.class, empty -> null);
+		assertThat (Json.valueOf ((Object) new Empty ()).isNull (), is (true));
+	}
+
+	private static class Unregistered {}
+	private static class Late {}
+	private static class Empty {}
+
+	private static class Identifier {
+		final int value;
+		Identifier (int value) { this.value = value; }
+	}
+
+	private static class SpecialIdentifier extends Identifier {
+		SpecialIdentifier (int value) { super (value); }
+	}
+
+	private static interface Named {
+		String name ();
+	}
+
+	private static class Person implements Named {
+		@Override public String name () { return "John Doe"; }
+	}
+
 }
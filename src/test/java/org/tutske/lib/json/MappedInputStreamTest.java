@@ -0,0 +1,94 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+public class MappedInputStreamTest {
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder ();
+
+	@Test
+	public void it_should_read_a_file_across_multiple_windows () throws IOException {
+		String content = "{ \"key\": \"value\", \"list\": [ 1, 2, 3, 4, 5 ] }";
+		try ( InputStream in = open (file (content), 7) ) {
+			assertThat (readAll (in), is (content));
+		}
+	}
+
+	@Test
+	public void it_should_read_single_bytes_across_windows () throws IOException {
+		try ( InputStream in = open (file ("abcdef"), 4) ) {
+			StringBuilder builder = new StringBuilder ();
+			for ( int b = in.read (); b >= 0; b = in.read () ) { builder.append ((char) b); }
+			assertThat (builder.toString (), is ("abcdef"));
+		}
+	}
+
+	@Test
+	public void it_should_skip_within_and_beyond_the_current_window () throws IOException {
+		try ( InputStream in = open (file ("abcdefghijkl"), 4) ) {
+			assertThat ((char) in.read (), is ('a'));
+			assertThat (in.skip (2), is (2L));
+			assertThat ((char) in.read (), is ('d'));
+			assertThat (in.skip (5), is (5L));
+			assertThat ((char) in.read (), is ('j'));
+			assertThat (in.skip (10), is (2L));
+			assertThat (in.read (), is (-1));
+		}
+	}
+
+	@Test
+	public void it_should_read_empty_files () throws IOException {
+		try ( InputStream in = open (file (""), 4) ) {
+			assertThat (in.read (), is (-1));
+			assertThat (in.read (new byte [8], 0, 8), is (-1));
+		}
+	}
+
+	@Test
+	public void it_should_parse_documents_from_files () throws Exception {
+		JsonNode node = Json.parse (file ("{ \"key\": [ 1, 2, 3 ] }"));
+		assertThat (node, is (Json.objectNode ("key", Json.arrayNode (1, 2, 3))));
+	}
+
+	@Test
+	public void it_should_parse_documents_from_files_with_a_mapper () throws Exception {
+		JsonNode node = Json.parse (Mappers.compactMapper (), file ("{ \"key\": \"value\" }"));
+		assertThat (node.path ("key").asText (), is ("value"));
+	}
+
+	private Path file (String content) throws IOException {
+		Path path = folder.newFile ().toPath ();
+		Files.write (path, content.getBytes (StandardCharsets.UTF_8));
+		return path;
+	}
+
+	private InputStream open (Path path, int window) throws IOException {
+		return new MappedInputStream (FileChannel.open (path, StandardOpenOption.READ), window);
+	}
+
+	private String readAll (InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		byte [] buffer = new byte [5];
+		for ( int n = in.read (buffer, 0, buffer.length); n >= 0; n = in.read (buffer, 0, buffer.length) ) {
+			out.write (buffer, 0, n);
+		}
+		return new String (out.toByteArray (), StandardCharsets.UTF_8);
+	}
+
+}
@@ -5,6 +5,9 @@ import static org.hamcrest.Matchers.*;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -149,6 +152,50 @@ public class MappersTest {
 		assertThat (entity.name, is ("John Doe"));
 	}
 
+	@Test
+	public void it_should_reuse_readers_and_writers_for_the_same_mapper () {
+		ObjectMapper mapper = Mappers.mapper ();
+		assertThat (Mappers.writer (mapper), sameInstance (Mappers.writer (mapper)));
+		assertThat (Mappers.prettyWriter (mapper), sameInstance (Mappers.prettyWriter (mapper)));
+		assertThat (Mappers.reader (mapper), sameInstance (Mappers.reader (mapper)));
+	}
+
+	@Test
+	public void it_should_use_separate_readers_and_writers_for_different_mappers () {
+		assertThat (Mappers.writer (Mappers.mapper ()), not (sameInstance (Mappers.writer (Mappers.mapper ()))));
+		assertThat (Mappers.reader (Mappers.mapper ()), not (sameInstance (Mappers.reader (Mappers.mapper ()))));
+	}
+
+	@Test
+	public void it_should_create_new_readers_and_writers_after_registering_modules () {
+		ObjectMapper mapper = Mappers.mapper ();
+		ObjectWriter writer = Mappers.writer (mapper);
+		ObjectReader reader = Mappers.reader (mapper);
+
+		mapper.registerModule (Mappers.module (this::addSerializers));
+
+		assertThat (Mappers.writer (mapper), not (sameInstance (writer)));
+		assertThat (Mappers.reader (mapper), not (sameInstance (reader)));
+		assertThat (Json.stringify (mapper, new CustomEntity (1, "John Doe")), containsString ("__type__"));
+	}
+
+	@Test
+	public void it_should_pick_up_features_enabled_after_a_writer_was_cached () {
+		ObjectMapper mapper = Mappers.mapper ();
+		Json.stringify (mapper, Json.objectNode ("key", "value"));
+
+		mapper.enable (SerializationFeature.INDENT_OUTPUT);
+
+		assertThat (Json.stringify (mapper, Json.objectNode ("key", "value")), containsString ("\n"));
+	}
+
+	@Test
+	public void it_should_pretty_print_with_the_cached_pretty_writer () {
+		ObjectMapper mapper = Mappers.mapper ();
+		String json = Json.stringify (Mappers.prettyWriter (mapper), Json.objectNode ("key", "value"));
+		assertThat (json, containsString (" \"key\" : \"value\""));
+	}
+
 	public static class CustomEntity {
 		public final long id;
 		public final String name;
@@ -0,0 +1,144 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+public class ParseLinesParallelTest {
+
+	private static final int RECORDS = 60_000;
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder ();
+
+	@Test
+	public void it_should_split_files_on_line_boundaries () throws IOException {
+		Path path = file ("{\"a\":1}\n{\"b\":2}\n{\"c\":3}\n{\"d\":4}\n");
+		List<ByteBuffer> ranges = LineRanges.map (path, 4, 5, 1000);
+
+		assertThat (ranges.stream ().map (this::text).collect (Collectors.toList ()), contains (
+			"{\"a\":1}\n", "{\"b\":2}\n", "{\"c\":3}\n", "{\"d\":4}\n"
+		));
+	}
+
+	@Test
+	public void it_should_keep_long_lines_in_a_single_range () throws IOException {
+		Path path = file ("{\"key\":\"a long value\"}\n{}\n");
+		List<ByteBuffer> ranges = LineRanges.map (path, 8, 2, 1000);
+
+		assertThat (ranges.stream ().map (this::text).collect (Collectors.toList ()), contains (
+			"{\"key\":\"a long value\"}\n", "{}\n"
+		));
+	}
+
+	@Test
+	public void it_should_include_a_last_line_without_a_newline () throws IOException {
+		Path path = file ("1\n2\n3");
+		List<ByteBuffer> ranges = LineRanges.map (path, 2, 1, 1000);
+		assertThat (ranges.stream ().map (this::text).collect (Collectors.joining ()), is ("1\n2\n3"));
+	}
+
+	@Test
+	public void it_should_not_create_ranges_for_empty_files () throws IOException {
+		assertThat (LineRanges.map (file (""), 4, 1, 1000), empty ());
+	}
+
+	@Test
+	public void it_should_collect_all_records_in_file_order () throws IOException {
+		List<JsonNode> nodes = Json.parseLinesParallel (records (), Collectors.toList ());
+
+		assertThat (nodes.size (), is (RECORDS));
+		for ( int i = 0; i < RECORDS; i++ ) {
+			assertThat (nodes.get (i).path ("id").asInt (), is (i));
+		}
+	}
+
+	@Test
+	public void it_should_pass_all_records_to_a_consumer () throws IOException {
+		LongAdder sum = new LongAdder ();
+		Json.parseLinesParallel (records (), node -> sum.add (node.path ("id").asLong ()));
+		assertThat (sum.sum (), is ((long) RECORDS * (RECORDS - 1) / 2));
+	}
+
+	@Test
+	public void it_should_parse_on_a_custom_executor () throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool (3);
+		try {
+			long count = Json.parseLinesParallel (Mappers.compactMapper (), records (), executor, Collectors.counting ());
+			assertThat (count, is ((long) RECORDS));
+		} finally {
+			executor.shutdown ();
+		}
+	}
+
+	@Test
+	public void it_should_complain_about_malformed_lines () throws IOException {
+		Path path = file ("{\"id\":1}\n{\"id\":\n{\"id\":3}\n");
+		assertThrows (JsonParseException.class, () -> Json.parseLinesParallel (path, Collectors.toList ()));
+	}
+
+	@Test
+	public void it_should_stop_parsing_other_ranges_after_a_malformed_line () throws IOException {
+		Path path = records ("{\"id\":\n");
+		LongAdder parsed = new LongAdder ();
+		ExecutorService executor = Executors.newSingleThreadExecutor ();
+		try {
+			assertThrows (JsonParseException.class, () -> {
+				Json.parseLinesParallel (Mappers.instance, path, executor, node -> parsed.increment ());
+			});
+		} finally {
+			executor.shutdown ();
+		}
+
+		assertThat (LineRanges.map (path).size (), greaterThan (1));
+		assertThat (parsed.sum (), is (0L));
+	}
+
+	private Path records () throws IOException {
+		return records ("");
+	}
+
+	private Path records (String prefix) throws IOException {
+		Path path = folder.newFile ().toPath ();
+		try ( OutputStream out = Files.newOutputStream (path) ) {
+			out.write (prefix.getBytes (StandardCharsets.UTF_8));
+			Json.writeLines (out, IntStream.range (0, RECORDS).mapToObj (i -> Json.objectNode (
+				"id", i,
+				"name", "record number " + i
+			)));
+		}
+		return path;
+	}
+
+	private Path file (String content) throws IOException {
+		Path path = folder.newFile ().toPath ();
+		Files.write (path, content.getBytes (StandardCharsets.UTF_8));
+		return path;
+	}
+
+	private String text (ByteBuffer buffer) {
+		byte [] bytes = new byte [buffer.remaining ()];
+		buffer.duplicate ().get (bytes);
+		return new String (bytes, StandardCharsets.UTF_8);
+	}
+
+}
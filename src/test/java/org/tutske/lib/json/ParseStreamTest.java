@@ -0,0 +1,177 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+public class ParseStreamTest {
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder ();
+
+	@Test
+	public void it_should_stream_the_elements_of_a_top_level_array () {
+		List<JsonNode> nodes = Json.parseStream (input ("[ { 'id': 1 }, { 'id': 2 }, { 'id': 3 } ]"))
+			.collect (Collectors.toList ());
+
+		assertThat (nodes.size (), is (3));
+		assertThat (nodes.get (0).path ("id").asInt (), is (1));
+		assertThat (nodes.get (2).path ("id").asInt (), is (3));
+	}
+
+	@Test
+	public void it_should_stream_newline_delimited_documents () {
+		List<JsonNode> nodes = Json.parseStream (input ("{ 'id': 1 }\n{ 'id': 2 }\n[ 'a', 'b' ]\n"))
+			.collect (Collectors.toList ());
+
+		assertThat (nodes.size (), is (3));
+		assertThat (nodes.get (1).path ("id").asInt (), is (2));
+		assertThat (nodes.get (2).isArray (), is (true));
+	}
+
+	@Test
+	public void it_should_stream_primitive_elements () {
+		List<Integer> values = Json.parseStream (input ("[ 1, 2, null, 4 ]"))
+			.map (JsonNode::asInt)
+			.collect (Collectors.toList ());
+
+		assertThat (values, contains (1, 2, 0, 4));
+	}
+
+	@Test
+	public void it_should_produce_an_empty_stream_for_empty_input () {
+		assertThat (Json.parseStream (input ("")).count (), is (0L));
+		assertThat (Json.parseStream (input ("[]")).count (), is (0L));
+	}
+
+	@Test
+	public void it_should_only_parse_the_elements_that_are_consumed () {
+		JsonNode first = Json.parseStream (input ("[ { 'id': 1 }, { 'id': 2 }, { 'broken'"))
+			.findFirst ()
+			.get ();
+
+		assertThat (first.path ("id").asInt (), is (1));
+	}
+
+	@Test
+	public void it_should_complain_when_reaching_invalid_json () {
+		RuntimeException ex = assertThrows (RuntimeException.class, () -> {
+			Json.parseStream (input ("[ { 'id': 1 }, { 'broken'")).count ();
+		});
+		assertThat (ex.getCause (), instanceOf (IOException.class));
+	}
+
+	@Test
+	public void it_should_stream_from_a_reader () {
+		Stream<JsonNode> stream = Json.parseStream (new StringReader (json ("[ { 'id': 1 }, { 'id': 2 } ]")));
+		assertThat (stream.count (), is (2L));
+	}
+
+	@Test
+	public void it_should_stream_from_a_reader_with_a_mapper () {
+		Stream<JsonNode> stream = Json.parseStream (Mappers.mapper (), new StringReader (json ("{}\n{}\n{}")));
+		assertThat (stream.count (), is (3L));
+	}
+
+	@Test
+	public void it_should_stream_from_an_input_stream_with_an_object_reader () {
+		Stream<JsonNode> stream = Json.parseStream (Mappers.mapper ().reader (), input ("[ 1, 2, 3, 4 ]"));
+		assertThat (stream.count (), is (4L));
+	}
+
+	@Test
+	public void it_should_stream_from_a_file () throws IOException {
+		Path path = folder.newFile ("data.json").toPath ();
+		Files.write (path, json ("{ 'id': 1 }\n{ 'id': 2 }\n").getBytes (StandardCharsets.UTF_8));
+
+		try ( Stream<JsonNode> stream = Json.parseStream (path) ) {
+			assertThat (stream.mapToInt (node -> node.path ("id").asInt ()).sum (), is (3));
+		}
+	}
+
+	@Test
+	public void it_should_close_the_underlying_input_when_the_stream_is_closed () {
+		boolean [] closed = { false };
+		InputStream in = new ByteArrayInputStream (json ("[ 1, 2, 3 ]").getBytes (StandardCharsets.UTF_8)) {
+			@Override public void close () { closed[0] = true; }
+		};
+
+		Stream<JsonNode> stream = Json.parseStream (in);
+		stream.findFirst ();
+		assertThat (closed[0], is (false));
+
+		stream.close ();
+		assertThat (closed[0], is (true));
+	}
+
+	@Test
+	public void it_should_filter_elements_while_parsing () {
+		ArrayNode result = Json.filter (
+			input ("[ { 'id': 1 }, { 'id': 2 }, { 'id': 3 }, { 'id': 4 } ]"),
+			node -> node.path ("id").asInt () % 2 == 0
+		);
+		assertThat (result, is (Json.arrayNode (Json.objectNode ("id", 2), Json.objectNode ("id", 4))));
+	}
+
+	@Test
+	public void it_should_filter_elements_from_readers_and_files () throws IOException {
+		Path path = folder.newFile ("filter.json").toPath ();
+		Files.write (path, json ("[ 1, 2, 3, 4, 5 ]").getBytes (StandardCharsets.UTF_8));
+
+		assertThat (Json.filter (path, node -> node.asInt () > 3), is (Json.arrayNode (4, 5)));
+		assertThat (Json.filter (new StringReader ("[ 1, 2, 3 ]"), node -> node.asInt () < 2), is (Json.arrayNode (1)));
+	}
+
+	@Test
+	public void it_should_pass_matching_elements_to_a_sink () {
+		List<JsonNode> matches = new ArrayList<> ();
+		long kept = Json.filter (input ("{ 'id': 1 }\n{ 'id': 2 }\n{ 'id': 3 }"), node -> node.path ("id").asInt () != 2, matches::add);
+
+		assertThat (kept, is (2L));
+		assertThat (matches, contains ((JsonNode) Json.objectNode ("id", 1), Json.objectNode ("id", 3)));
+	}
+
+	@Test
+	public void it_should_filter_with_the_mapper_node_factory () {
+		ArrayNode result = Json.filter (Mappers.compactMapper (), input ("[ 7, 8 ]"), node -> true);
+		assertThat (result.get (0), sameInstance (CompactNodeFactory.instance.numberNode (7)));
+	}
+
+	@Test
+	public void it_should_close_the_input_after_filtering () {
+		boolean [] closed = { false };
+		InputStream in = new ByteArrayInputStream (json ("[ 1, 2, 3 ]").getBytes (StandardCharsets.UTF_8)) {
+			@Override public void close () { closed[0] = true; }
+		};
+
+		Json.filter (in, node -> true);
+		assertThat (closed[0], is (true));
+	}
+
+	private static InputStream input (String json) {
+		return new ByteArrayInputStream (json (json).getBytes (StandardCharsets.UTF_8));
+	}
+
+	private static String json (String json) {
+		return json.replaceAll ("'", "\"");
+	}
+
+}
@@ -0,0 +1,213 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+
+public class PersistentObjectNodeTest {
+
+	@Test
+	public void it_should_contain_the_fields_of_the_source () {
+		PersistentObjectNode node = Json.persistent (Json.objectNode ("first", 1, "second", "two"));
+
+		assertThat (node.size (), is (2));
+		assertThat (node.path ("first").asInt (), is (1));
+		assertThat (node.path ("second").asText (), is ("two"));
+		assertThat (node.has ("third"), is (false));
+	}
+
+	@Test
+	public void it_should_be_equal_to_an_object_node_with_the_same_fields () {
+		ObjectNode plain = Json.objectNode ("first", 1, "second", Json.arrayNode ("a", "b"));
+		PersistentObjectNode node = Json.persistent (plain);
+
+		assertThat (node, is (plain));
+		assertThat (plain, is ((ObjectNode) node));
+		assertThat (node.hashCode (), is (plain.hashCode ()));
+	}
+
+	@Test
+	public void it_should_serialize_as_a_normal_object () throws Exception {
+		ObjectNode plain = Json.objectNode ("first", 1, "second", Json.objectNode ("nested", true));
+		PersistentObjectNode node = Json.persistent (plain);
+
+		assertThat (Json.parse (Json.stringify (node)), is ((JsonNode) plain));
+		assertThat (Json.parse (Json.stringify (Mappers.mapper (), node)), is ((JsonNode) plain));
+	}
+
+	@Test
+	public void it_should_return_new_versions_when_assigning () {
+		PersistentObjectNode original = Json.persistent (Json.objectNode ("first", 1));
+		PersistentObjectNode updated = original.assign ("second", Json.valueOf (2));
+
+		assertThat (original.size (), is (1));
+		assertThat (original.has ("second"), is (false));
+		assertThat (updated.size (), is (2));
+		assertThat (updated.path ("second").asInt (), is (2));
+	}
+
+	@Test
+	public void it_should_purge_without_changing_the_original () {
+		PersistentObjectNode original = Json.persistent (Json.objectNode ("first", 1, "second", 2, "third", 3));
+		PersistentObjectNode purged = Json.purge (original, "first", "third", "missing");
+
+		assertThat (purged, is ((ObjectNode) Json.objectNode ("second", 2)));
+		assertThat (original.size (), is (3));
+	}
+
+	@Test
+	public void it_should_keep_without_changing_the_original () {
+		PersistentObjectNode original = Json.persistent (Json.objectNode ("first", 1, "second", 2, "third", 3));
+		PersistentObjectNode kept = Json.keep (original, "first", "third", "missing");
+
+		assertThat (kept, is ((ObjectNode) Json.objectNode ("first", 1, "third", 3)));
+		assertThat (original.size (), is (3));
+	}
+
+	@Test
+	public void it_should_keep_and_purge_persistent_nodes_passed_as_object_nodes () {
+		ObjectNode original = Json.persistent (Json.objectNode ("first", 1, "second", 2));
+
+		assertThat (Json.purge (original, "first"), instanceOf (PersistentObjectNode.class));
+		assertThat (Json.keep (original, "first"), instanceOf (PersistentObjectNode.class));
+		assertThat (Json.purge (original, "first"), is ((ObjectNode) Json.objectNode ("second", 2)));
+	}
+
+	@Test
+	public void it_should_merge_into_a_new_version () {
+		PersistentObjectNode original = Json.persistent (Json.objectNode ("first", 1, "second", 2));
+		PersistentObjectNode merged = Json.merge (original,
+			Json.objectNode ("second", "two"),
+			null,
+			Json.objectNode ("third", 3)
+		);
+
+		assertThat (merged, is ((ObjectNode) Json.objectNode ("first", 1, "second", "two", "third", 3)));
+		assertThat (original, is ((ObjectNode) Json.objectNode ("first", 1, "second", 2)));
+	}
+
+	@Test
+	public void it_should_merge_absent_fields_into_a_new_version () {
+		PersistentObjectNode original = Json.persistent (Json.objectNode ("first", 1, "second", 2));
+		PersistentObjectNode merged = Json.mergeAbsent (original,
+			Json.objectNode ("second", "two", "third", 3),
+			Json.objectNode ("third", "three")
+		);
+
+		assertThat (merged, is ((ObjectNode) Json.objectNode ("first", 1, "second", 2, "third", 3)));
+		assertThat (original.size (), is (2));
+	}
+
+	@Test
+	public void it_should_merge_persistent_nodes_passed_as_object_nodes () {
+		ObjectNode original = Json.persistent (Json.objectNode ("first", 1, "second", 2));
+
+		ObjectNode merged = Json.merge (original, Json.objectNode ("second", "two"));
+		ObjectNode absent = Json.mergeAbsent (original, Json.objectNode ("second", "two", "third", 3));
+
+		assertThat (merged, instanceOf (PersistentObjectNode.class));
+		assertThat (merged, is ((ObjectNode) Json.objectNode ("first", 1, "second", "two")));
+		assertThat (absent, is ((ObjectNode) Json.objectNode ("first", 1, "second", 2, "third", 3)));
+		assertThat (original, is ((ObjectNode) Json.objectNode ("first", 1, "second", 2)));
+	}
+
+	@Test
+	public void it_should_not_allow_regular_object_node_mutations () {
+		PersistentObjectNode original = Json.persistent (Json.objectNode ("first", 1, "second", 2));
+
+		assertThrows (JsonException.class, () -> original.put ("first", "one"));
+		assertThrows (JsonException.class, () -> original.set ("third", Json.valueOf (3)));
+		assertThrows (JsonException.class, () -> original.remove ("second"));
+		assertThrows (JsonException.class, () -> original.removeAll ());
+		assertThrows (JsonException.class, () -> original.retain ("first"));
+		assertThrows (JsonException.class, () -> {
+			Iterator<Map.Entry<String, JsonNode>> it = original.fields ();
+			it.next ();
+			it.remove ();
+		});
+
+		assertThat (original, is ((ObjectNode) Json.objectNode ("first", 1, "second", 2)));
+	}
+
+	@Test
+	public void it_should_make_mutable_deep_copies () {
+		PersistentObjectNode original = Json.persistent (Json.objectNode ("first", 1));
+		ObjectNode copy = original.deepCopy ();
+		copy.put ("second", 2);
+
+		assertThat (copy, not (instanceOf (PersistentObjectNode.class)));
+		assertThat (original.size (), is (1));
+	}
+
+	@Test
+	public void it_should_order_fields_by_hash_instead_of_insertion () {
+		ObjectNode source = Json.objectNode ("z", 1, "a", 2, "m", 3, "b", 4);
+		PersistentObjectNode node = Json.persistent (source);
+
+		assertThat (Json.stringify (node), is ("{'a':2,'b':4,'m':3,'z':1}".replaceAll ("'", "\"")));
+		assertThat (node, is (source));
+	}
+
+	@Test
+	public void it_should_handle_keys_with_colliding_hash_codes () {
+		assertThat ("Aa".hashCode (), is ("BB".hashCode ()));
+
+		PersistentObjectNode node = new PersistentObjectNode ()
+			.assign ("Aa", Json.valueOf (1))
+			.assign ("BB", Json.valueOf (2))
+			.assign ("AaAa", Json.valueOf (3))
+			.assign ("BBBB", Json.valueOf (4))
+			.assign ("AaBB", Json.valueOf (5));
+
+		assertThat (node.size (), is (5));
+		assertThat (node.path ("Aa").asInt (), is (1));
+		assertThat (node.path ("BB").asInt (), is (2));
+		assertThat (node.path ("AaBB").asInt (), is (5));
+
+		PersistentObjectNode purged = node.purge ("Aa", "AaAa");
+		assertThat (purged.size (), is (3));
+		assertThat (purged.has ("Aa"), is (false));
+		assertThat (purged.path ("BB").asInt (), is (2));
+		assertThat (purged.path ("BBBB").asInt (), is (4));
+	}
+
+	@Test
+	public void it_should_behave_like_a_regular_object_node_for_random_changes () {
+		Random random = new Random (42);
+		Map<String, JsonNode> expected = new LinkedHashMap<> ();
+		PersistentObjectNode node = new PersistentObjectNode ();
+
+		for ( int i = 0; i < 20_000; i++ ) {
+			String key = "key-" + random.nextInt (2_000);
+			if ( random.nextInt (3) == 0 ) {
+				expected.remove (key);
+				node = node.purge (key);
+			} else {
+				JsonNode value = Json.valueOf (i);
+				expected.put (key, value);
+				node = node.assign (key, value);
+			}
+		}
+
+		assertThat (node.size (), is (expected.size ()));
+		assertThat (node, is ((ObjectNode) Json.objectNode (expected)));
+
+		int [] count = { 0 };
+		node.fields ().forEachRemaining (field -> {
+			assertThat (field.getValue (), is (expected.get (field.getKey ())));
+			count[0]++;
+		});
+		assertThat (count[0], is (expected.size ()));
+	}
+
+}
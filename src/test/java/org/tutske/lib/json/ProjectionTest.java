@@ -0,0 +1,134 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class ProjectionTest {
+
+	private final String order = json (
+		"{ 'id': 12, 'type': 'order', 'ts': 1560000000," +
+		"  'customer': { 'name': 'John', 'address': { 'zip': '1234AB', 'city': 'Utrecht' } }," +
+		"  'lines': [ { 'sku': 'a', 'amount': 1 }, { 'sku': 'b', 'amount': 2 } ]," +
+		"  'payload': { 'big': [ 1, 2, 3, { 'deep': [ [], {} ] } ] } }"
+	);
+
+	@Test
+	public void it_should_keep_only_the_projected_fields () throws Exception {
+		JsonNode node = Json.parse (order, Projection.fields ("id", "type", "ts"));
+		assertThat (node, is (Json.objectNode ("id", 12, "type", "order", "ts", 1560000000)));
+	}
+
+	@Test
+	public void it_should_be_the_same_as_keeping_fields_after_parsing () throws Exception {
+		JsonNode full = Json.parse (order);
+		JsonNode projected = Json.parse (order, Projection.fields ("customer", "type", "missing"));
+		assertThat (projected, is (Json.keep (full, "customer", "type", "missing")));
+	}
+
+	@Test
+	public void it_should_be_the_same_as_keeping_paths_after_parsing () throws Exception {
+		JsonNode full = Json.parse (order);
+		JsonNode projected = Json.parse (order, Projection.paths ("customer.address.zip", "lines[1].sku", "id"));
+
+		assertThat (projected, is (Json.keepPaths (full,
+			Json.accessor ("customer.address.zip"),
+			Json.accessor ("lines[1].sku"),
+			Json.accessor ("id")
+		)));
+	}
+
+	@Test
+	public void it_should_keep_fields_in_document_order_unlike_keep () throws Exception {
+		JsonNode full = Json.parse (order);
+		JsonNode projected = Json.parse (order, Projection.fields ("ts", "id"));
+
+		assertThat (names (projected), contains ("id", "ts"));
+		assertThat (names (Json.keep (full, "ts", "id")), contains ("ts", "id"));
+	}
+
+	@Test
+	public void it_should_project_non_object_roots_unlike_keep_paths () throws Exception {
+		String array = json ("[ { 'id': 1 } ]");
+		JsonNode projected = Json.parse (array, Projection.paths ("[0].id"));
+
+		assertThat (projected, is (Json.arrayNode (Json.objectNode ("id", 1))));
+		JsonNode full = Json.parse (array);
+		assertThrows (JsonException.class, () -> Json.keepPaths (full, Json.accessor ("[0].id")));
+	}
+
+	@Test
+	public void it_should_keep_whole_subtrees_of_projected_fields () throws Exception {
+		JsonNode node = Json.parse (order, Projection.fields ("payload"));
+		assertThat (node.path ("payload"), is (Json.parse (order).path ("payload")));
+	}
+
+	@Test
+	public void it_should_project_with_json_pointers () throws Exception {
+		JsonNode node = Json.parse (order, Projection.paths ("/lines/0/amount"));
+		assertThat (node, is (Json.objectNode ("lines", Json.arrayNode (Json.objectNode ("amount", 1)))));
+	}
+
+	@Test
+	public void it_should_return_an_empty_object_when_nothing_matches () throws Exception {
+		JsonNode node = Json.parse (order, Projection.fields ("nothing"));
+		assertThat (node, is (Json.objectNode ()));
+	}
+
+	@Test
+	public void it_should_project_elements_of_top_level_arrays () throws Exception {
+		JsonNode node = Json.parse (json ("[ { 'id': 1, 'x': 2 }, { 'id': 3 } ]"), Projection.paths ("[1].id"));
+		assertThat (node, is (Json.arrayNode (Json.objectNode ("id", 3))));
+	}
+
+	@Test
+	public void it_should_return_top_level_primitives_as_is () throws Exception {
+		JsonNode node = Json.parse ("12", Projection.fields ("id"));
+		assertThat (node, is (Json.valueOf (12)));
+	}
+
+	@Test
+	public void it_should_project_from_bytes_and_streams () throws Exception {
+		byte [] bytes = order.getBytes (StandardCharsets.UTF_8);
+		Projection projection = Projection.fields ("id");
+
+		JsonNode fromBytes = Json.parse (bytes, projection);
+		JsonNode fromStream = Json.parse (new ByteArrayInputStream (bytes), projection);
+
+		assertThat (fromBytes, is (Json.objectNode ("id", 12)));
+		assertThat (fromStream, is (Json.objectNode ("id", 12)));
+	}
+
+	@Test
+	public void it_should_build_nodes_with_the_mapper_node_factory () throws Exception {
+		JsonNode node = Json.parse (Mappers.compactMapper (), order, Projection.paths ("lines[0].amount"));
+		assertThat (node.path ("lines").path (0).path ("amount"), sameInstance (CompactNodeFactory.instance.numberNode (1)));
+	}
+
+	@Test
+	public void it_should_still_complain_about_malformed_input_in_skipped_parts () {
+		String broken = json ("{ 'id': 1, 'skipped': { 'a': ] }");
+		assertThrows (JsonParseException.class, () -> Json.parse (broken, Projection.fields ("id")));
+	}
+
+	private static List<String> names (JsonNode node) {
+		List<String> names = new ArrayList<> ();
+		node.fieldNames ().forEachRemaining (names::add);
+		return names;
+	}
+
+	private static String json (String json) {
+		return json.replaceAll ("'", "\"");
+	}
+
+}
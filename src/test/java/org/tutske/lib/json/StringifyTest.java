@@ -15,7 +15,11 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 
 public class StringifyTest {
@@ -184,7 +188,9 @@ public class StringifyTest {
 	public void it_should_propagate_io_exceptions_as_runtime_exceptions_when_deserializing_with_object_mappers ()
 	throws IOException {
 		ObjectMapper mapper = mock (ObjectMapper.class);
-		doThrow  (new IOException ("FORCE FAIL")).when (mapper).readTree (any (String.class));
+		ObjectReader reader = mock (ObjectReader.class);
+		when (mapper.readerFor (JsonNode.class)).thenReturn (reader);
+		doThrow  (new IOException ("FORCE FAIL")).when (reader).readTree (any (String.class));
 
 		RuntimeException ex = assertThrows (RuntimeException.class, () -> {
 			Json.parse (mapper, "{}");
@@ -206,6 +212,100 @@ public class StringifyTest {
 		assertThat (ex.getCause (), instanceOf (IOException.class));
 	}
 
+	@Test
+	public void it_should_serialize_to_utf8_bytes () {
+		byte [] json = Json.stringifyBytes (Json.objectNode ("key", "v\u00e4lue"));
+		assertThat (new String (json, StandardCharsets.UTF_8), is ("{\"key\":\"v\u00e4lue\"}"));
+	}
+
+	@Test
+	public void it_should_serialize_to_utf8_bytes_with_a_mapper_or_writer () {
+		ObjectNode data = Json.objectNode ("key", "value");
+		assertThat (Json.stringifyBytes (new ObjectMapper (), data), is (Json.stringify (data).getBytes (StandardCharsets.UTF_8)));
+		assertThat (Json.stringifyBytes (new ObjectMapper ().writer (), data), is (Json.stringify (data).getBytes (StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void it_should_serialize_to_an_output_stream_without_closing_it () {
+		boolean [] closed = { false };
+		ByteArrayOutputStream out = new ByteArrayOutputStream () {
+			@Override public void close () { closed[0] = true; }
+		};
+
+		Json.stringifyTo (out, Json.objectNode ("key", "v\u00e4lue"));
+
+		assertThat (new String (out.toByteArray (), StandardCharsets.UTF_8), is ("{\"key\":\"v\u00e4lue\"}"));
+		assertThat (closed[0], is (false));
+	}
+
+	@Test
+	public void it_should_serialize_to_an_output_stream_with_a_pretty_writer () {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		Json.stringifyTo (new ObjectMapper ().writerWithDefaultPrettyPrinter (), out, Json.objectNode ("key", "value"));
+		assertThat (new String (out.toByteArray (), StandardCharsets.UTF_8), containsString (" \"key\" : \"value\""));
+	}
+
+	@Test
+	public void it_should_propagate_io_exceptions_as_runtime_exceptions_when_serializing_to_output_streams () {
+		ObjectMapper mapper = Mappers.mapper (this::forceFailingSerialization);
+		RuntimeException ex = assertThrows (RuntimeException.class, () -> {
+			Json.stringifyTo (mapper, new ByteArrayOutputStream (), new Object ());
+		});
+
+		assertThat (ex.getCause (), instanceOf (IOException.class));
+	}
+
+	@Test
+	public void it_should_parse_a_slice_of_a_byte_array () throws IOException {
+		byte [] bytes = "xx{ 'key': 'v\u00e4lue' }yy".replaceAll ("'", "\"").getBytes (StandardCharsets.UTF_8);
+		JsonNode node = Json.parse (bytes, 2, bytes.length - 4);
+		assertThat (node.path ("key").asText (), is ("v\u00e4lue"));
+	}
+
+	@Test
+	public void it_should_parse_a_byte_array_with_a_mapper_or_reader () throws IOException {
+		byte [] bytes = "[ 1, 2, 3 ]".getBytes (StandardCharsets.UTF_8);
+		assertThat (Json.parse (new ObjectMapper (), bytes, 0, bytes.length).size (), is (3));
+		assertThat (Json.parse (new ObjectMapper ().reader (), bytes, 0, bytes.length).size (), is (3));
+	}
+
+	@Test
+	public void it_should_parse_a_heap_byte_buffer_without_moving_its_position () throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap ("__{ 'key': 'value' }".replaceAll ("'", "\"").getBytes (StandardCharsets.UTF_8));
+		buffer.position (2);
+
+		JsonNode node = Json.parse (buffer);
+
+		assertThat (node.path ("key").asText (), is ("value"));
+		assertThat (buffer.position (), is (2));
+	}
+
+	@Test
+	public void it_should_parse_a_direct_byte_buffer () throws IOException {
+		byte [] bytes = "{ 'key': 'value' }".replaceAll ("'", "\"").getBytes (StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocateDirect (bytes.length);
+		buffer.put (bytes).flip ();
+
+		assertThat (Json.parse (buffer).path ("key").asText (), is ("value"));
+		assertThat (Json.parse (new ObjectMapper ().reader (), buffer).path ("key").asText (), is ("value"));
+		assertThat (buffer.remaining (), is (bytes.length));
+	}
+
+	@Test
+	public void it_should_parse_an_input_stream () throws IOException {
+		byte [] bytes = "{ 'key': 'value' }".replaceAll ("'", "\"").getBytes (StandardCharsets.UTF_8);
+		assertThat (Json.parse (new ByteArrayInputStream (bytes)).path ("key").asText (), is ("value"));
+		assertThat (Json.parse (new ObjectMapper ().reader (), new ByteArrayInputStream (bytes)).size (), is (1));
+	}
+
+	@Test
+	public void it_should_complain_about_parsing_errors_when_parsing_invalid_bytes () {
+		byte [] bytes = "{ 'open': 'object'".replaceAll ("'", "\"").getBytes (StandardCharsets.UTF_8);
+		assertThrows (JsonParseException.class, () -> Json.parse (bytes));
+		assertThrows (JsonParseException.class, () -> Json.parse (ByteBuffer.wrap (bytes)));
+		assertThrows (JsonParseException.class, () -> Json.parse (new ByteArrayInputStream (bytes)));
+	}
+
 	private void forceFailingSerialization (SimpleModule module) {
 		Mappers.serialize (module, Object.class, (value, gen, provider) -> {
 			throw new IOException ("FORCE FAIL");
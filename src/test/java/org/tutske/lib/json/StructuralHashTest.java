@@ -0,0 +1,148 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+
+public class StructuralHashTest {
+
+	@Test
+	public void it_should_hash_equal_trees_the_same () throws Exception {
+		JsonNode left = Json.parse ("{'a': 1, 'b': [true, null, 'text', 1.5], 'c': {'d': 12}}".replaceAll ("'", "\""));
+		JsonNode right = Json.parse ("{'a': 1, 'b': [true, null, 'text', 1.5], 'c': {'d': 12}}".replaceAll ("'", "\""));
+		assertThat (Json.structuralHash (left), is (Json.structuralHash (right)));
+	}
+
+	@Test
+	public void it_should_not_depend_on_the_order_of_fields () {
+		ObjectNode left = Json.objectNode ("a", 1, "b", 2);
+		ObjectNode right = Json.objectNode ("b", 2, "a", 1);
+		assertThat (Json.structuralHash (left), is (Json.structuralHash (right)));
+		assertThat (Json.deepEquals (left, right), is (true));
+	}
+
+	@Test
+	public void it_should_depend_on_the_order_of_array_elements () {
+		assertThat (Json.structuralHash (Json.arrayNode (1, 2)), not (Json.structuralHash (Json.arrayNode (2, 1))));
+	}
+
+	@Test
+	public void it_should_hash_different_trees_differently () {
+		assertThat (Json.structuralHash (Json.objectNode ("a", 1)), not (Json.structuralHash (Json.objectNode ("a", 2))));
+		assertThat (Json.structuralHash (Json.objectNode ("a", 1)), not (Json.structuralHash (Json.objectNode ("b", 1))));
+		assertThat (Json.structuralHash (Json.arrayNode ()), not (Json.structuralHash (Json.objectNode ())));
+		assertThat (Json.structuralHash (Json.valueOf ("1")), not (Json.structuralHash (Json.valueOf (1))));
+	}
+
+	@Test
+	public void it_should_agree_with_equals () {
+		JsonNode [] nodes = {
+			Json.valueOf (1), Json.valueOf (1L), Json.valueOf (1.0), Json.valueOf ("1"),
+			Json.arrayNode (1, 2), Json.arrayNode (1, 2, 3), Json.objectNode ("a", 1),
+			Json.objectNode ("a", 1L), Json.objectNode ("a", Json.arrayNode (1, 2)),
+			Json.valueOf (new BigDecimal ("1.0")), Json.valueOf (new BigDecimal ("1.00"))
+		};
+		for ( JsonNode left : nodes ) {
+			for ( JsonNode right : nodes ) {
+				assertThat (Json.deepEquals (left, right), is (left.equals (right)));
+				assertThat (Json.deepEquals (left.deepCopy (), right), is (left.equals (right)));
+				if ( left.equals (right) ) {
+					assertThat (Json.structuralHash (left), is (Json.structuralHash (right)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void it_should_compare_persistent_object_nodes_with_regular_ones () {
+		ObjectNode object = Json.objectNode ("a", 1, "b", Json.arrayNode (1, 2));
+		PersistentObjectNode persistent = PersistentObjectNode.of (object);
+		assertThat (Json.deepEquals (object, persistent), is (true));
+		assertThat (Json.structuralHash (object), is (Json.structuralHash (persistent)));
+	}
+
+	@Test
+	public void it_should_tell_nodes_of_different_sizes_apart () {
+		assertThat (Json.deepEquals (Json.objectNode ("a", 1), Json.objectNode ("a", 1, "b", 2)), is (false));
+		assertThat (Json.deepEquals (Json.objectNode ("a", 1, "b", 2), Json.objectNode ("a", 1)), is (false));
+		assertThat (Json.deepEquals (Json.objectNode ("a", 1), Json.objectNode ("b", 1)), is (false));
+	}
+
+	@Test
+	public void it_should_cache_hashes_of_containers () {
+		HashCache cache = new HashCache ();
+		ObjectNode node = Json.objectNode ("a", Json.objectNode ("b", Json.arrayNode (1, 2)), "c", 3);
+		long hash = cache.hash (node);
+		assertThat (hash, is (Json.structuralHash (node)));
+		assertThat (cache.size (), is (3));
+		assertThat (Json.structuralHash (node, cache), is (hash));
+		assertThat (cache.size (), is (3));
+	}
+
+	@Test
+	public void it_should_compare_with_a_cache () {
+		HashCache cache = new HashCache ();
+		ArrayNode shared = Json.arrayNode (Json.objectNode ("a", 1), Json.objectNode ("b", 2));
+		ObjectNode left = Json.objectNode ("shared", shared, "value", 1);
+		ObjectNode right = Json.objectNode ("shared", shared, "value", 1);
+		ObjectNode other = Json.objectNode ("shared", shared, "value", 2);
+
+		assertThat (Json.deepEquals (left, right, cache), is (true));
+		assertThat (Json.deepEquals (left, other, cache), is (false));
+		assertThat (Json.deepEquals (left, left.deepCopy (), cache), is (true));
+	}
+
+	@Test
+	public void it_should_be_able_to_clear_the_cache () {
+		HashCache cache = new HashCache ();
+		cache.hash (Json.objectNode ("a", Json.objectNode ("b", 1)));
+		cache.clear ();
+		assertThat (cache.size (), is (0));
+	}
+
+	@Test
+	public void it_should_compare_modified_nodes_after_invalidating_them () {
+		HashCache cache = new HashCache ();
+		ObjectNode left = Json.objectNode ("a", Json.objectNode ("b", 1));
+		ObjectNode right = Json.objectNode ("a", Json.objectNode ("b", 2));
+		assertThat (Json.deepEquals (left, right, cache), is (false));
+
+		((ObjectNode) right.get ("a")).put ("b", 1);
+		cache.invalidate (right);
+		cache.invalidate (right.get ("a"));
+
+		assertThat (Json.deepEquals (left, right, cache), is (true));
+	}
+
+	@Test
+	public void it_should_compare_modified_nodes_after_clearing_the_cache () {
+		HashCache cache = new HashCache ();
+		ObjectNode left = Json.objectNode ("a", Json.objectNode ("b", 1));
+		ObjectNode right = Json.objectNode ("a", Json.objectNode ("b", 2));
+		assertThat (Json.deepEquals (left, right, cache), is (false));
+
+		Json.deepMerge (right, Json.objectNode ("a", Json.objectNode ("b", 1)));
+		cache.clear ();
+
+		assertThat (Json.deepEquals (left, right, cache), is (true));
+	}
+
+	@Test
+	public void it_should_hold_on_to_nodes_weakly () throws Exception {
+		HashCache cache = new HashCache ();
+		for ( int i = 0; i < 1_000; i++ ) { cache.hash (Json.objectNode ("id", i)); }
+		for ( int i = 0; i < 20 && cache.size () > 0; i++ ) {
+			System.gc ();
+			Thread.sleep (10);
+		}
+		assertThat (cache.size (), lessThan (1_000));
+	}
+
+}
@@ -0,0 +1,109 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+
+public class SymbolTableTest {
+
+	@Test
+	public void it_should_resolve_equal_symbols_to_the_same_instance () {
+		SymbolTable symbols = new SymbolTable (16);
+		String first = symbols.canonical (new String ("key"));
+		assertThat (symbols.canonical (new String ("key")), sameInstance (first));
+	}
+
+	@Test
+	public void it_should_not_keep_long_symbols () {
+		SymbolTable symbols = new SymbolTable (16, 4);
+		String symbol = new String ("a longer key");
+		symbols.canonical (new String ("a longer key"));
+		assertThat (symbols.canonical (symbol), sameInstance (symbol));
+	}
+
+	@Test
+	public void it_should_evict_symbols_when_slots_collide () {
+		SymbolTable symbols = new SymbolTable (1);
+		symbols.canonical ("first");
+		symbols.canonical ("second");
+
+		String first = new String ("first");
+		assertThat (symbols.canonical (first), sameInstance (first));
+	}
+
+	@Test
+	public void it_should_round_the_capacity_up_to_a_power_of_two () {
+		assertThat (new SymbolTable (1).capacity (), is (1));
+		assertThat (new SymbolTable (5).capacity (), is (8));
+		assertThat (new SymbolTable (4096).capacity (), is (4096));
+	}
+
+	@Test
+	public void it_should_complain_about_non_positive_capacities () {
+		assertThrows (JsonException.class, () -> new SymbolTable (0));
+	}
+
+	@Test
+	public void it_should_share_field_names_across_parses () throws Exception {
+		ObjectMapper mapper = Mappers.canonicalFieldNames (Mappers.mapper (), new SymbolTable (64));
+		JsonNode first = Json.parse (mapper, "{\"key\":1}");
+		JsonNode second = Json.parse (mapper, "{\"key\":2}");
+
+		assertThat (first.fieldNames ().next (), sameInstance (second.fieldNames ().next ()));
+	}
+
+	@Test
+	public void it_should_share_field_names_between_mappers_using_the_same_table () throws Exception {
+		SymbolTable symbols = new SymbolTable (64);
+		ObjectMapper one = Mappers.canonicalFieldNames (Mappers.mapper (), symbols);
+		ObjectMapper other = Mappers.canonicalFieldNames (Mappers.mapper (), symbols);
+
+		JsonNode first = Json.parse (one, "{\"key\":1}");
+		ObjectNode second = Json.objectNode (other, new String ("key"), 2);
+
+		assertThat (first.fieldNames ().next (), sameInstance (second.fieldNames ().next ()));
+	}
+
+	@Test
+	public void it_should_keep_the_node_factory_of_the_mapper () throws Exception {
+		ObjectMapper mapper = Mappers.mapper ()
+			.setNodeFactory (JsonNodeFactory.withExactBigDecimals (true))
+			.enable (DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+		ObjectMapper canonical = Mappers.canonicalFieldNames (mapper, new SymbolTable (64));
+
+		JsonNode node = Json.parse (canonical, "{\"amount\":1.50}");
+		assertThat (node.get ("amount").decimalValue ().toString (), is ("1.50"));
+	}
+
+	@Test
+	public void it_should_keep_compact_nodes_for_compact_mappers () throws Exception {
+		ObjectMapper mapper = Mappers.canonicalFieldNames (Mappers.compactMapper (), new SymbolTable (64));
+		JsonNode first = Json.parse (mapper, "{\"key\":\"value\",\"count\":12}");
+		JsonNode second = Json.parse (mapper, "{\"key\":\"value\",\"count\":12}");
+
+		assertThat (first.get ("key"), sameInstance (second.get ("key")));
+		assertThat (first.get ("count"), sameInstance (second.get ("count")));
+		assertThat (first.fieldNames ().next (), sameInstance (second.fieldNames ().next ()));
+	}
+
+	@Test
+	public void it_should_canonicalize_names_added_in_bulk () throws Exception {
+		SymbolTable symbols = new SymbolTable (64);
+		ObjectMapper mapper = Mappers.canonicalFieldNames (Mappers.mapper (), symbols);
+		ObjectNode source = Json.objectNode (new String ("key"), 1);
+
+		ObjectNode target = Json.objectNode (mapper);
+		target.setAll (source);
+
+		assertThat (target.fieldNames ().next (), sameInstance (symbols.canonical ("key")));
+	}
+
+}
@@ -430,6 +430,25 @@ public class ValidateTest {
 		Validate.assureNonEmptyStrings (node, "key");
 	}
 
+	@Test
+	public void it_should_leave_out_stack_traces_when_disabled () {
+		JsonNode node = Json.objectNode ("key", "value");
+		try {
+			Validate.stackTraces (false);
+			JsonException e = assertThrows (JsonException.class, () -> Validate.assureFields (node, "missing"));
+			assertThat (e.getStackTrace ().length, is (0));
+			assertThat (e.getData ().path ("field").asText (), is ("missing"));
+		} finally {
+			Validate.stackTraces (true);
+		}
+	}
+
+	@Test
+	public void it_should_include_stack_traces_by_default () {
+		JsonException e = assertThrows (JsonException.class, () -> Validate.assureObject (Json.arrayNode ()));
+		assertThat (e.getStackTrace ().length, greaterThan (0));
+	}
+
 	private void assertValidation (String contained, ThrowingRunnable runnable) {
 		JsonException e = assertThrows (JsonException.class, runnable);
 		assertThat (e.getMessage (), containsString (contained));
@@ -0,0 +1,170 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+
+public class ValidatorTest {
+
+	private final Validator validator = Validate.compile (schema -> schema
+		.fields ("id", "name", "tags")
+		.primitiveFields ("id")
+		.nonEmptyStrings ("name")
+		.absence ("password")
+	);
+
+	@Test
+	public void it_should_accept_valid_objects () {
+		JsonNode node = Json.objectNode ("id", 1, "name", "John", "tags", Json.arrayNode ());
+		assertThat (validator.test (node), is (true));
+		validator.validate (node);
+	}
+
+	@Test
+	public void it_should_reject_non_objects () {
+		assertThat (validator.test (null), is (false));
+		assertThat (validator.test (NullNode.getInstance ()), is (false));
+		assertThat (validator.test (Json.arrayNode ()), is (false));
+
+		assertSameFailure (null, () -> Validate.assureObject (null));
+		assertSameFailure (Json.arrayNode (), () -> Validate.assureObject (Json.arrayNode ()));
+	}
+
+	@Test
+	public void it_should_reject_missing_and_null_fields () {
+		JsonNode missing = Json.objectNode ("id", 1, "name", "John");
+		JsonNode nulled = Json.objectNode ("id", 1, "name", "John", "tags", null);
+
+		assertThat (validator.test (missing), is (false));
+		assertThat (validator.test (nulled), is (false));
+		assertSameFailure (missing, () -> Validate.assureFields (missing, "id", "name", "tags"));
+		assertSameFailure (nulled, () -> Validate.assureFields (nulled, "id", "name", "tags"));
+	}
+
+	@Test
+	public void it_should_reject_container_values_for_primitive_fields () {
+		JsonNode node = Json.objectNode ("id", Json.objectNode (), "name", "John", "tags", Json.arrayNode ());
+		assertThat (validator.test (node), is (false));
+		assertSameFailure (node, () -> Validate.assurePrimitiveFields (node, "id"));
+	}
+
+	@Test
+	public void it_should_reject_empty_and_non_textual_strings () {
+		JsonNode empty = Json.objectNode ("id", 1, "name", "", "tags", Json.arrayNode ());
+		JsonNode number = Json.objectNode ("id", 1, "name", 12, "tags", Json.arrayNode ());
+
+		assertThat (validator.test (empty), is (false));
+		assertThat (validator.test (number), is (false));
+		assertSameFailure (empty, () -> Validate.assureNonEmptyStrings (empty, "name"));
+		assertSameFailure (number, () -> Validate.assureNonEmptyStrings (number, "name"));
+	}
+
+	@Test
+	public void it_should_reject_fields_that_should_be_absent () {
+		JsonNode node = Json.objectNode ("id", 1, "name", "John", "tags", Json.arrayNode (), "password", null);
+		assertThat (validator.test (node), is (false));
+		assertSameFailure (node, () -> Validate.assureAbsence (node, "password"));
+	}
+
+	@Test
+	public void it_should_report_failures_in_the_order_the_constraints_were_declared () {
+		JsonNode node = Json.objectNode ("id", Json.arrayNode (), "name", "John", "password", "secret");
+		assertSameFailure (node, () -> Validate.assureFields (node, "id", "name", "tags"));
+	}
+
+	@Test
+	public void it_should_accept_everything_for_empty_schemas_except_non_objects () {
+		Validator empty = Validate.compile (schema -> {});
+		assertThat (empty.test (Json.objectNode ("any", "thing")), is (true));
+		assertThat (empty.test (Json.valueOf ("text")), is (false));
+	}
+
+	@Test
+	public void it_should_not_be_affected_by_changes_to_the_schema_arguments () {
+		String [] fields = { "id" };
+		Validator validator = Validate.compile (schema -> schema.fields (fields));
+		fields[0] = "other";
+
+		assertThat (validator.test (Json.objectNode ("id", 1)), is (true));
+	}
+
+	@Test
+	public void it_should_return_failures_from_check_instead_of_throwing () {
+		JsonNode node = Json.objectNode ("id", 1, "name", "");
+		assertThat (validator.check (Json.objectNode ("id", 1, "name", "John", "tags", 2)), nullValue ());
+		assertThat (validator.check (node).getMessage (), containsString ("missing"));
+	}
+
+	@Test
+	public void it_should_mark_all_failing_records_in_bulk () {
+		ArrayNode records = records (1000, 7);
+		ValidationReport report = Validate.validateAll (records, validator);
+
+		assertThat (report.size (), is (1000));
+		assertThat (report.isValid (), is (false));
+		assertThat (report.failureCount (), is (143));
+		for ( int i = 0; i < records.size (); i++ ) {
+			assertThat (report.failed (i), is (i % 7 == 0));
+		}
+	}
+
+	@Test
+	public void it_should_only_keep_details_for_the_earliest_failures () {
+		ValidationReport report = Validate.validateAll (records (1000, 7), validator, 3);
+
+		assertThat (report.errors ().keySet (), contains (0, 7, 14));
+		assertThat (report.errors ().get (7).getMessage (), containsString ("non empty string"));
+	}
+
+	@Test
+	public void it_should_validate_in_bulk_on_a_custom_pool () {
+		ForkJoinPool pool = new ForkJoinPool (2);
+		try {
+			ValidationReport report = Validate.validateAll (pool, records (100, 10), validator);
+			assertThat (report.failures ().cardinality (), is (10));
+			assertThat (report.errors ().size (), is (10));
+		} finally {
+			pool.shutdown ();
+		}
+	}
+
+	@Test
+	public void it_should_report_empty_arrays_as_valid () {
+		ValidationReport report = Validate.validateAll (Json.arrayNode (), validator);
+		assertThat (report.isValid (), is (true));
+		assertThat (report.errors ().isEmpty (), is (true));
+	}
+
+	@Test
+	public void it_should_not_expose_the_internal_failure_bitmap () {
+		ValidationReport report = Validate.validateAll (records (10, 2), validator);
+		report.failures ().clear ();
+		assertThat (report.failureCount (), is (5));
+	}
+
+	private ArrayNode records (int count, int failEvery) {
+		ArrayNode records = Json.arrayNode ();
+		for ( int i = 0; i < count; i++ ) {
+			String name = i % failEvery == 0 ? "" : "name-" + i;
+			records.add (Json.objectNode ("id", i, "name", name, "tags", Json.arrayNode ()));
+		}
+		return records;
+	}
+
+	private void assertSameFailure (JsonNode node, Runnable expected) {
+		JsonException actual = assertThrows (JsonException.class, () -> validator.validate (node));
+		JsonException reference = assertThrows (JsonException.class, expected::run);
+
+		assertThat (actual.getMessage (), is (reference.getMessage ()));
+		assertThat (Json.stringify (actual), is (Json.stringify (reference)));
+	}
+
+}
@@ -0,0 +1,145 @@
+package org.tutske.lib.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+public class WriteLinesTest {
+
+	@Test
+	public void it_should_write_every_record_on_its_own_line () {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		Json.writeLines (out, Stream.of (
+			Json.objectNode ("id", 1),
+			Json.objectNode ("id", 2)
+		));
+
+		assertThat (text (out), is (json ("{'id':1}\n{'id':2}\n")));
+	}
+
+	@Test
+	public void it_should_write_every_record_on_a_single_line_with_an_indenting_mapper () {
+		ObjectMapper mapper = Mappers.mapper ();
+		mapper.enable (SerializationFeature.INDENT_OUTPUT);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		Json.writeLines (mapper, out, Stream.of (
+			Json.objectNode ("a", 1, "b", Json.arrayNode (1, 2)),
+			Json.objectNode ("a", 2)
+		));
+
+		assertThat (text (out), is (json ("{'a':1,'b':[1,2]}\n{'a':2}\n")));
+	}
+
+	@Test
+	public void it_should_write_every_record_on_a_single_line_with_a_pretty_writer () {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		Json.writeLines (Mappers.instance.writerWithDefaultPrettyPrinter (), out, Stream.of (
+			Json.objectNode ("a", 1),
+			Json.objectNode ("a", 2)
+		));
+
+		assertThat (text (out), is (json ("{'a':1}\n{'a':2}\n")));
+	}
+
+	@Test
+	public void it_should_return_the_number_of_records_written () {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		long count = Json.writeLines (out, IntStream.range (0, 25).mapToObj (i -> Json.objectNode ("i", i)));
+		assertThat (count, is (25L));
+		assertThat (text (out).split ("\n").length, is (25));
+	}
+
+	@Test
+	public void it_should_write_arbitrary_values () {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		List<Object> records = Arrays.asList (Collections.singletonMap ("key", "value"), "text", 3, null);
+		Json.writeLines (Mappers.mapper (), out, records.iterator ());
+
+		assertThat (text (out), is (json ("{'key':'value'}\n'text'\n3\nnull\n")));
+	}
+
+	@Test
+	public void it_should_write_lines_that_can_be_streamed_back () {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		Json.writeLines (out, IntStream.range (0, 100).mapToObj (i -> Json.objectNode ("i", i)));
+
+		try ( Stream<JsonNode> stream = Json.parseStream (new ByteArrayInputStream (out.toByteArray ())) ) {
+			assertThat (stream.mapToInt (node -> node.path ("i").asInt ()).sum (), is (4950));
+		}
+	}
+
+	@Test
+	public void it_should_write_to_channels () {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		Json.writeLines (Channels.newChannel (out), Stream.of (Json.arrayNode (1, 2), Json.arrayNode (3)));
+		assertThat (text (out), is ("[1,2]\n[3]\n"));
+	}
+
+	@Test
+	public void it_should_flush_after_the_configured_number_of_records () {
+		FlushCountingStream out = new FlushCountingStream ();
+		Json.writeLines (
+			Mappers.writer (Mappers.instance), out,
+			IntStream.range (0, 10).mapToObj (i -> Json.objectNode ("i", i)).iterator (),
+			Long.MAX_VALUE, 3
+		);
+
+		assertThat (out.flushes, is (4));
+	}
+
+	@Test
+	public void it_should_not_flush_per_record_by_default () {
+		FlushCountingStream out = new FlushCountingStream ();
+		Json.writeLines (out, IntStream.range (0, 1000).mapToObj (i -> Json.objectNode ("i", i)));
+		assertThat (out.flushes, lessThanOrEqualTo (2));
+	}
+
+	@Test
+	public void it_should_not_close_the_output () {
+		FlushCountingStream out = new FlushCountingStream ();
+		Json.writeLines (out, Stream.of (Json.objectNode ("id", 1)));
+		assertThat (out.closed, is (false));
+	}
+
+	@Test
+	public void it_should_write_nothing_for_empty_input () {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		long count = Json.writeLines (out, Collections.<Map<String, Object>>emptyIterator ());
+		assertThat (count, is (0L));
+		assertThat (out.size (), is (0));
+	}
+
+	private static String text (ByteArrayOutputStream out) {
+		return new String (out.toByteArray (), StandardCharsets.UTF_8);
+	}
+
+	private static String json (String json) {
+		return json.replaceAll ("'", "\"");
+	}
+
+	private static class FlushCountingStream extends ByteArrayOutputStream {
+		int flushes = 0;
+		boolean closed = false;
+
+		@Override public void flush () { flushes++; }
+		@Override public void close () { closed = true; }
+	}
+
+}